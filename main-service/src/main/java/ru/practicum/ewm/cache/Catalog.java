@@ -0,0 +1,6 @@
+package ru.practicum.ewm.cache;
+
+public enum Catalog {
+    CATEGORIES,
+    COMPILATIONS
+}
@@ -0,0 +1,10 @@
+package ru.practicum.ewm.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CatalogChange {
+    private final Catalog catalog;
+}
@@ -0,0 +1,73 @@
+package ru.practicum.ewm.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters of the public catalogue collections, used as ETags of their responses.
+ * <p>
+ * A counter is bumped after an admin write commits, and the ETag also carries the startup epoch so a restart
+ * never revalidates a response of the previous process. Compilations embed events whose counters change
+ * without an admin write, so their ETag also rolls over every compilations-freshness interval.
+ */
+@Component
+public class CatalogVersions {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Catalog, AtomicLong> versions = new EnumMap<>(Catalog.class);
+    private final CacheControl cacheControl;
+    private final long compilationsFreshnessMillis;
+
+    public CatalogVersions(@Value("${ewm.catalog.max-age:0s}") Duration maxAge,
+                           @Value("${ewm.catalog.compilations-freshness:60s}") Duration compilationsFreshness) {
+        for (Catalog catalog : Catalog.values()) {
+            versions.put(catalog, new AtomicLong());
+        }
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().mustRevalidate();
+        this.compilationsFreshnessMillis = Math.max(1, compilationsFreshness.toMillis());
+    }
+
+    public String etag(Catalog catalog) {
+        String etag = catalog.name().toLowerCase() + "-" + epoch + "-" + versions.get(catalog).get();
+        if (catalog == Catalog.COMPILATIONS) {
+            etag += "-" + System.currentTimeMillis() / compilationsFreshnessMillis;
+        }
+        return "W/\"" + etag + "\"";
+    }
+
+    /**
+     * Weak comparison of an If-None-Match header against the current ETag.
+     */
+    public boolean matches(String etag, String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || (candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+                    .equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public CacheControl cacheControl() {
+        return cacheControl;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChange change) {
+        versions.get(change.getCatalog()).incrementAndGet();
+        if (change.getCatalog() == Catalog.CATEGORIES) {
+            versions.get(Catalog.COMPILATIONS).incrementAndGet();
+        }
+    }
+}
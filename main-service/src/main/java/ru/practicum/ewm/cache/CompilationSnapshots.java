@@ -0,0 +1,98 @@
+package ru.practicum.ewm.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.dto.CompilationDto;
+import ru.practicum.ewm.mapper.EventAndCompilationMapper;
+import ru.practicum.ewm.model.Compilation;
+import ru.practicum.ewm.model.CompilationSnapshot;
+import ru.practicum.ewm.repository.JpaCompilationRepository;
+import ru.practicum.ewm.repository.JpaCompilationSnapshotRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Serialized {@link CompilationDto} per compilation, rebuilt in the transaction of every write that changes
+ * what a compilation shows: the compilation itself, one of its events, an event category or an initiator.
+ * <p>
+ * Readers deserialize the snapshot and overlay the volatile event counters and views, so a compilation page is
+ * a single-table read. Compilations without a snapshot, e.g. created before the table existed, are backfilled
+ * on startup.
+ */
+@Slf4j
+@Component
+public class CompilationSnapshots implements SmartInitializingSingleton {
+    private final JpaCompilationRepository compilationRepository;
+    private final JpaCompilationSnapshotRepository snapshotRepository;
+    private final EventAndCompilationMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CompilationSnapshots(JpaCompilationRepository compilationRepository,
+                                JpaCompilationSnapshotRepository snapshotRepository,
+                                EventAndCompilationMapper mapper,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher) {
+        this.compilationRepository = compilationRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int rebuilt = transactionTemplate.execute(status -> {
+            List<Integer> ids = compilationRepository.findIdsWithoutSnapshot();
+            refresh(ids);
+            return ids.size();
+        });
+        if (rebuilt > 0) {
+            log.info("Backfilled {} compilation snapshots", rebuilt);
+        }
+    }
+
+    public CompilationDto save(Compilation compilation) {
+        CompilationDto compilationDto = mapper.toDtoCompilation(compilation);
+        try {
+            snapshotRepository.save(new CompilationSnapshot(compilation.getId(), compilation.getPinned(),
+                    objectMapper.writeValueAsString(compilationDto)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize compilation with id = " + compilation.getId(), e);
+        }
+        return compilationDto;
+    }
+
+    public void refresh(Collection<Integer> compilationIds) {
+        if (!compilationIds.isEmpty()) {
+            compilationRepository.findAllById(compilationIds).forEach(this::save);
+            eventPublisher.publishEvent(new CatalogChange(Catalog.COMPILATIONS));
+        }
+    }
+
+    public void refreshByEvent(int eventId) {
+        refresh(compilationRepository.findIdsByEventId(eventId));
+    }
+
+    public void refreshByCategory(int categoryId) {
+        refresh(compilationRepository.findIdsByEventCategoryId(categoryId));
+    }
+
+    public CompilationDto read(String snapshot) {
+        try {
+            return objectMapper.readValue(snapshot, CompilationDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read compilation snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.ewm.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections of read-only transactions to the replica pool and everything else to the primary.
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, otherwise
+ * the connection is taken before the transaction is marked read-only.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRIMARY;
+    }
+}
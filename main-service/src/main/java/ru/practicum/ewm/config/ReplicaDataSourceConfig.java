@@ -0,0 +1,68 @@
+package ru.practicum.ewm.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary and replica pools behind a routing data source. The primary pool is bound to spring.datasource.hikari
+ * like the auto-configured one, and the replica pool copies its settings with its own url, credentials and size.
+ */
+@Configuration
+@ConditionalOnProperty("ewm.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("ewm-primary");
+        return primary;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+            @Qualifier("primaryDataSource") HikariConfig primary,
+            @Value("${ewm.datasource.replica.url}") String replicaUrl,
+            @Value("${ewm.datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${ewm.datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${ewm.datasource.replica.pool-size:10}") int replicaPoolSize) {
+        HikariConfig replica = new HikariConfig();
+        primary.copyStateTo(replica);
+        replica.setPoolName("ewm-replica");
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(replicaUsername);
+        replica.setPassword(replicaPassword);
+        replica.setReadOnly(true);
+        replica.setMaximumPoolSize(replicaPoolSize);
+        if (primary.getMinimumIdle() > replicaPoolSize) {
+            replica.setMinimumIdle(replicaPoolSize);
+        }
+        return new HikariDataSource(replica);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        ReadOnlyRoutingDataSource routing = new ReadOnlyRoutingDataSource();
+        routing.setTargetDataSources(Map.of(ReadOnlyRoutingDataSource.PRIMARY, primary,
+                ReadOnlyRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -1,33 +1,52 @@
 package ru.practicum.ewm.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.ewm.dto.*;
 import ru.practicum.ewm.dto.CategoryDto;
+import ru.practicum.ewm.model.DataFormat;
 import ru.practicum.ewm.model.State;
 import ru.practicum.ewm.service.CategoryService;
 import ru.practicum.ewm.service.CompilationService;
 import ru.practicum.ewm.service.EventService;
+import ru.practicum.ewm.service.ImportService;
 import ru.practicum.ewm.service.UserService;
+import ru.practicum.ewm.service.ZoneService;
+import ru.practicum.ewm.utils.JsonArrayWriter;
+import ru.practicum.ewm.utils.NdjsonWriter;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Slf4j
 @RestController
 @RequestMapping("/admin")
 @RequiredArgsConstructor
 public class AdminController {
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String TEXT_CSV = "text/csv";
+
     private final UserService userService;
     private final CategoryService categoryService;
     private final EventService eventService;
     private final CompilationService compilationService;
+    private final ZoneService zoneService;
+    private final ImportService importService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping(value = "/users")
     @ResponseStatus(HttpStatus.CREATED)
@@ -44,11 +63,12 @@ public class AdminController {
     }
 
     @GetMapping(value = "/users")
-    List<UserDto> getUsers(@RequestParam(required = false) List<Integer> ids,
-                           @RequestParam(defaultValue = "0") @Min(0) int from,
-                           @RequestParam(defaultValue = "10") @Min(1) int size) {
+    ResponseEntity<StreamingResponseBody> getUsers(@RequestParam(required = false) List<Integer> ids,
+                                                   @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                   @RequestParam(defaultValue = "10") @Min(1) int size) {
         log.info("Get users by ids = {}, from = {}, size = {}", ids, from, size);
-        return userService.getUsers(ids, from, size);
+        return JsonArrayWriter.<UserDto>response(objectMapper,
+                consumer -> userService.getUsers(ids, from, size, consumer));
     }
 
     @PostMapping(value = "/categories")
@@ -73,18 +93,21 @@ public class AdminController {
     }
 
     @GetMapping(value = "/events")
-    List<EventFullDto> getEvents(@RequestParam(required = false) List<Integer> users,
-                                 @RequestParam(required = false) List<State> states,
-                                 @RequestParam(required = false) List<Integer> categories,
-                                 @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
-                                 LocalDateTime rangeStart,
-                                 @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
-                                 LocalDateTime rangeEnd,
-                                 @RequestParam(defaultValue = "0") @Min(0) int from,
-                                 @RequestParam(defaultValue = "10") @Min(1) int size) {
+    ResponseEntity<StreamingResponseBody> getEvents(@RequestParam(required = false) List<Integer> users,
+                                                    @RequestParam(required = false) List<State> states,
+                                                    @RequestParam(required = false) List<Integer> categories,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+                                                    LocalDateTime rangeStart,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+                                                    LocalDateTime rangeEnd,
+                                                    @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                    @RequestParam(defaultValue = "10") @Min(1) int size) {
         log.info("Get events users = {}, states = {}, categories = {}, rangeStart = {}, rangeEnd = {}, from = {} " +
                 "size = {}", users, states, categories, rangeStart, rangeEnd, from, size);
-        return eventService.getFullEvents(users, states, categories, rangeStart, rangeEnd, from, size);
+        return JsonArrayWriter.<EventFullDto>response(objectMapper, consumer ->
+                eventService.getFullEvents(users, states, categories, rangeStart, rangeEnd, from, size, consumer));
     }
 
     @PatchMapping(value = "/events/{eventId}")
@@ -94,6 +117,12 @@ public class AdminController {
         return eventService.updateEventAdmin(eventId, updateEventAdminRequest);
     }
 
+    @PatchMapping(value = "/events")
+    List<EventModerationResult> moderateEvents(@RequestBody @Valid EventModerationRequest moderationRequest) {
+        log.info("Moderate {} events", moderationRequest.getEvents().size());
+        return eventService.moderateEvents(moderationRequest);
+    }
+
     @PostMapping(value = "/compilations")
     @ResponseStatus(HttpStatus.CREATED)
     CompilationDto saveCompilation(@RequestBody @Valid NewCompilationDto compilationDto) {
@@ -115,10 +144,63 @@ public class AdminController {
         compilationService.removeCompilation(compId);
     }
 
+    @PostMapping(value = "/import/users", consumes = {APPLICATION_NDJSON, TEXT_CSV})
+    ResponseEntity<StreamingResponseBody> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                      InputStream body) {
+        log.info("Import users as {}", contentType);
+        return importReport(errors -> importService.importUsers(body, format(contentType), errors));
+    }
+
+    @PostMapping(value = "/import/categories", consumes = {APPLICATION_NDJSON, TEXT_CSV})
+    ResponseEntity<StreamingResponseBody> importCategories(@RequestHeader(HttpHeaders.CONTENT_TYPE)
+                                                           MediaType contentType,
+                                                           InputStream body) {
+        log.info("Import categories as {}", contentType);
+        return importReport(errors -> importService.importCategories(body, format(contentType), errors));
+    }
+
+    @PostMapping(value = "/import/events", consumes = {APPLICATION_NDJSON, TEXT_CSV})
+    ResponseEntity<StreamingResponseBody> importEvents(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                       InputStream body) {
+        log.info("Import events as {}", contentType);
+        return importReport(errors -> importService.importEvents(body, format(contentType), errors));
+    }
+
+    @PostMapping(value = "/zones")
+    @ResponseStatus(HttpStatus.CREATED)
+    ZoneDto saveZone(@RequestBody @Valid NewZoneDto zoneDto) {
+        log.info("Create zone {}", zoneDto);
+        return zoneService.saveZone(zoneDto);
+    }
+
+    @DeleteMapping(value = "/zones/{zoneId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    void removeZone(@PathVariable @Positive int zoneId) {
+        log.info("Remove zone with id = {}", zoneId);
+        zoneService.removeZone(zoneId);
+    }
+
     @DeleteMapping(value = "comments/{commentId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void removeComment(@PathVariable @Positive int commentId) {
         log.info("Remove comment by a admin with commentId = {}", commentId);
         eventService.removeCommentToAdmin(commentId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams the import report as newline delimited JSON: one line per rejected row, then the summary.
+     */
+    private ResponseEntity<StreamingResponseBody> importReport(
+            Function<Consumer<ImportErrorDto>, ImportSummaryDto> importer) {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(out, objectMapper)) {
+                writer.accept(importer.apply(writer::accept));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON)).body(body);
+    }
+
+    private DataFormat format(MediaType contentType) {
+        return MediaType.parseMediaType(TEXT_CSV).includes(contentType) ? DataFormat.CSV : DataFormat.NDJSON;
+    }
+}
@@ -1,15 +1,24 @@
 package ru.practicum.ewm.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.ewm.dto.*;
+import ru.practicum.ewm.model.DataFormat;
 import ru.practicum.ewm.model.SortComment;
+import ru.practicum.ewm.model.Status;
 import ru.practicum.ewm.service.EventService;
 import ru.practicum.ewm.service.RequestService;
+import ru.practicum.ewm.utils.JsonArrayWriter;
+import ru.practicum.ewm.utils.RequestExportWriter;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
 import java.util.List;
@@ -19,8 +28,12 @@ import java.util.List;
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class PrivateController {
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final EventService eventService;
     private final RequestService requestService;
+    private final ObjectMapper objectMapper;
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping(value = "/{userId}/events")
@@ -68,9 +81,20 @@ public class PrivateController {
     }
 
     @GetMapping(value = "/{userId}/requests")
-    List<ParticipationRequestDto> getRequests(@PathVariable @Positive int userId) {
+    ResponseEntity<StreamingResponseBody> getRequests(@PathVariable @Positive int userId) {
         log.info("Get requests with userId = {}", userId);
-        return requestService.getRequestsToUser(userId);
+        requestService.checkRequester(userId);
+        return JsonArrayWriter.<ParticipationRequestDto>response(objectMapper,
+                consumer -> requestService.getRequestsToUser(userId, consumer));
+    }
+
+    @GetMapping(value = "/{userId}/requests", params = "size")
+    List<ParticipationRequestDto> getRequests(@PathVariable @Positive int userId,
+                                              @RequestParam(required = false) List<Status> status,
+                                              @RequestParam(defaultValue = "0") @Min(0) int afterId,
+                                              @RequestParam @Min(1) @Max(1000) int size) {
+        log.info("Get requests with userId = {}, status = {}, afterId = {}, size = {}", userId, status, afterId, size);
+        return requestService.getRequestsToUser(userId, status, afterId, size);
     }
 
     @PatchMapping(value = "/{userId}/events/{eventId}/requests")
@@ -82,10 +106,42 @@ public class PrivateController {
     }
 
     @GetMapping(value = "/{userId}/events/{eventId}/requests")
-    List<ParticipationRequestDto> getRequestsToEvent(@PathVariable @Positive int userId,
-                                                     @PathVariable @Positive int eventId) {
+    ResponseEntity<StreamingResponseBody> getRequestsToEvent(@PathVariable @Positive int userId,
+                                                             @PathVariable @Positive int eventId) {
         log.info("Get requests with userId = {}, eventId = {}", userId, eventId);
-        return requestService.getRequestsToEvent(userId, eventId);
+        requestService.checkInitiator(userId, eventId);
+        return JsonArrayWriter.<ParticipationRequestDto>response(objectMapper,
+                consumer -> requestService.getRequestsToEvent(userId, eventId, consumer));
+    }
+
+    @GetMapping(value = "/{userId}/events/{eventId}/requests", params = "size")
+    List<ParticipationRequestDto> getRequestsToEvent(@PathVariable @Positive int userId,
+                                                     @PathVariable @Positive int eventId,
+                                                     @RequestParam(required = false) List<Status> status,
+                                                     @RequestParam(defaultValue = "0") @Min(0) int afterId,
+                                                     @RequestParam @Min(1) @Max(1000) int size) {
+        log.info("Get requests with userId = {}, eventId = {}, status = {}, afterId = {}, size = {}",
+                userId, eventId, status, afterId, size);
+        return requestService.getRequestsToEvent(userId, eventId, status, afterId, size);
+    }
+
+    @GetMapping(value = "/{userId}/events/{eventId}/requests/export")
+    ResponseEntity<StreamingResponseBody> exportRequestsToEvent(@PathVariable @Positive int userId,
+                                                                @PathVariable @Positive int eventId,
+                                                                @RequestParam(required = false) List<Status> status,
+                                                                @RequestParam(defaultValue = "NDJSON")
+                                                                DataFormat format) {
+        log.info("Export requests with userId = {}, eventId = {}, status = {}, format = {}",
+                userId, eventId, status, format);
+        requestService.checkInitiator(userId, eventId);
+        StreamingResponseBody body = out -> {
+            try (RequestExportWriter writer = new RequestExportWriter(out, format, objectMapper)) {
+                requestService.exportRequestsToEvent(userId, eventId, status, writer);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format == DataFormat.CSV ? TEXT_CSV : APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PostMapping(value = "/{userId}/events/{eventId}/comments")
@@ -117,11 +173,12 @@ public class PrivateController {
 
     @GetMapping(value = "/{userId}/comments")
     public List<CommentDto> getComments(@PathVariable @Positive int userId,
+                                        @RequestParam(required = false) Integer after,
                                         @RequestParam(defaultValue = "0") @Min(0) int from,
                                         @RequestParam(defaultValue = "10") @Min(1) int size,
                                         @RequestParam(defaultValue = "DESCCREATEDDATA") SortComment sortComment) {
-        log.info("Get comments user with id = " + userId + "from = " + from
+        log.info("Get comments user with id = " + userId + "after = " + after + "from = " + from
                 + "size = " + size + "sort" + sortComment);
-        return eventService.getCommentToAuthor(userId, from, size, sortComment);
+        return eventService.getCommentToAuthor(userId, after, from, size, sortComment);
     }
 }
\ No newline at end of file
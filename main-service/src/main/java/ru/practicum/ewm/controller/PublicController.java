@@ -3,7 +3,15 @@ package ru.practicum.ewm.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.ewm.cache.Catalog;
+import ru.practicum.ewm.cache.CatalogVersions;
 import ru.practicum.ewm.client.stats.StatsClient;
 import ru.practicum.ewm.dto.*;
 import ru.practicum.ewm.dto.stats.EndpointHit;
@@ -11,6 +19,9 @@ import ru.practicum.ewm.model.SortComment;
 import ru.practicum.ewm.service.CategoryService;
 import ru.practicum.ewm.service.CompilationService;
 import ru.practicum.ewm.service.EventService;
+import ru.practicum.ewm.service.ZoneService;
+import ru.practicum.ewm.stream.CommentFeed;
+import ru.practicum.ewm.stream.SeatFeed;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.Min;
@@ -18,6 +29,8 @@ import javax.validation.constraints.Positive;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
@@ -26,42 +39,48 @@ public class PublicController {
     private final CategoryService categoryService;
     private final EventService eventService;
     private final CompilationService compilationService;
+    private final ZoneService zoneService;
     private final StatsClient statsClient;
+    private final CommentFeed commentFeed;
+    private final SeatFeed seatFeed;
+    private final CatalogVersions catalogVersions;
 
     @GetMapping(value = "/categories/{catId}")
-    CategoryDto getCategory(@PathVariable @Positive int catId) {
+    ResponseEntity<CategoryDto> getCategory(@PathVariable @Positive int catId, WebRequest webRequest) {
         log.info("Get category with id = {}", catId);
-        return categoryService.getCategory(catId);
+        return conditional(Catalog.CATEGORIES, webRequest, () -> categoryService.getCategory(catId));
     }
 
     @GetMapping(value = "/categories")
-    List<CategoryDto> getCategories(@RequestParam(defaultValue = "0") @Min(0) int from,
-                                    @RequestParam(defaultValue = "10") @Min(1) int size) {
+    ResponseEntity<List<CategoryDto>> getCategories(@RequestParam(defaultValue = "0") @Min(0) int from,
+                                                    @RequestParam(defaultValue = "10") @Min(1) int size,
+                                                    WebRequest webRequest) {
         log.info("Get all categories from = {}, size = {}", from, size);
-        return categoryService.getCategories(from, size);
+        return conditional(Catalog.CATEGORIES, webRequest, () -> categoryService.getCategories(from, size));
     }
 
     @GetMapping(value = "/events/{id}")
     EventFullDto getEvent(@PathVariable @Positive int id, HttpServletRequest request) {
         log.info("Get event with id = {}", id);
-        statsClient.saveHit(new EndpointHit("ewm-main-service",
+        return eventService.getEvent(id, new EndpointHit("ewm-main-service",
                 request.getRequestURI(), request.getRemoteAddr(),
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
-        return eventService.getEvent(id);
     }
 
     @GetMapping(value = "/compilations/{compId}")
-    CompilationDto getCompilation(@PathVariable @Positive int compId) {
+    ResponseEntity<CompilationDto> getCompilation(@PathVariable @Positive int compId, WebRequest webRequest) {
         log.info("Get compilation with id = {}", compId);
-        return compilationService.getCompilation(compId);
+        return conditional(Catalog.COMPILATIONS, webRequest, () -> compilationService.getCompilation(compId));
     }
 
     @GetMapping(value = "/compilations")
-    List<CompilationDto> getCompilations(@RequestParam(required = false) Boolean pinned,
-                                         @RequestParam(defaultValue = "0") @Min(0) int from,
-                                         @RequestParam(defaultValue = "10") @Min(0) int size) {
+    ResponseEntity<List<CompilationDto>> getCompilations(@RequestParam(required = false) Boolean pinned,
+                                                         @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                         @RequestParam(defaultValue = "10") @Min(0) int size,
+                                                         WebRequest webRequest) {
         log.info("Get compilations for pinned = {}, from = {}, size = {}", pinned, from, size);
-        return compilationService.getCompilations(pinned, from, size);
+        return conditional(Catalog.COMPILATIONS, webRequest,
+                () -> compilationService.getCompilations(pinned, from, size));
     }
 
     @GetMapping(value = "/events")
@@ -80,20 +99,107 @@ public class PublicController {
         log.info("Get events text = {}, categories = {}, paid = {}, onlyAvailable = {}," +
                 "sort = {}, rangeStart = {}, rangeEnd = {}, from = {} " +
                 "size = {}", text, categories, paid, onlyAvailable, sort, rangeStart, rangeEnd, from, size);
-        statsClient.saveHit(new EndpointHit("ewm-main-service",
+        CompletableFuture<Void> hitSaved = statsClient.saveHitAsync(new EndpointHit("ewm-main-service",
                 request.getRequestURI(), request.getRemoteAddr(),
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
-        return eventService.getEventsByFilter(text, categories, paid, rangeStart, rangeEnd, onlyAvailable,
-                sort, from, size);
+        List<EventShortDto> events = eventService.getEventsByFilter(text, categories, paid, rangeStart, rangeEnd,
+                onlyAvailable, sort, from, size);
+        hitSaved.join();
+        return events;
+    }
+
+    @GetMapping(value = "/events", params = "archived=true")
+    List<EventShortDto> getArchivedEvents(@RequestParam(required = false) List<Integer> categories,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeStart,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
+                                          @RequestParam(defaultValue = "0") @Min(0) int from,
+                                          @RequestParam(defaultValue = "10") @Min(1) int size,
+                                          HttpServletRequest request) {
+        log.info("Get archived events categories = {}, rangeStart = {}, rangeEnd = {}, from = {}, size = {}",
+                categories, rangeStart, rangeEnd, from, size);
+        CompletableFuture<Void> hitSaved = statsClient.saveHitAsync(new EndpointHit("ewm-main-service",
+                request.getRequestURI(), request.getRemoteAddr(),
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
+        List<EventShortDto> events = eventService.getArchivedEvents(categories, rangeStart, rangeEnd, from, size);
+        hitSaved.join();
+        return events;
+    }
+
+    @GetMapping(value = "/events", params = {"lat", "lon"})
+    List<EventShortDto> getEventsNear(@RequestParam double lat,
+                                      @RequestParam double lon,
+                                      @RequestParam(defaultValue = "10") double radius,
+                                      @RequestParam(defaultValue = "0") @Min(0) int from,
+                                      @RequestParam(defaultValue = "10") @Min(1) int size,
+                                      HttpServletRequest request) {
+        log.info("Get events near lat = {}, lon = {}, radius = {} km, from = {}, size = {}",
+                lat, lon, radius, from, size);
+        CompletableFuture<Void> hitSaved = statsClient.saveHitAsync(new EndpointHit("ewm-main-service",
+                request.getRequestURI(), request.getRemoteAddr(),
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))));
+        List<EventShortDto> events = eventService.getEventsNear(lat, lon, radius, from, size);
+        hitSaved.join();
+        return events;
+    }
+
+    @GetMapping(value = "/zones")
+    List<ZoneDto> getZones(@RequestParam(defaultValue = "0") @Min(0) int from,
+                           @RequestParam(defaultValue = "10") @Min(1) int size) {
+        log.info("Get zones from = {}, size = {}", from, size);
+        return zoneService.getZones(from, size);
+    }
+
+    @GetMapping(value = "/zones/{zoneId}")
+    ZoneDto getZone(@PathVariable @Positive int zoneId) {
+        log.info("Get zone with id = {}", zoneId);
+        return zoneService.getZone(zoneId);
+    }
+
+    @GetMapping(value = "/zones/{zoneId}/events")
+    List<EventShortDto> getZoneEvents(@PathVariable @Positive int zoneId,
+                                      @RequestParam(defaultValue = "0") @Min(0) int from,
+                                      @RequestParam(defaultValue = "10") @Min(1) int size) {
+        log.info("Get events in zone with id = {}, from = {}, size = {}", zoneId, from, size);
+        return eventService.getZoneEvents(zoneId, from, size);
     }
 
     @GetMapping(value = "/events/{eventId}/comments")
     public List<CommentShortDto> getComments(@PathVariable @Positive int eventId,
+                                             @RequestParam(required = false) Integer after,
                                              @RequestParam(defaultValue = "0") @Min(0) int from,
                                              @RequestParam(defaultValue = "10") @Min(1) int size,
                                              @RequestParam(defaultValue = "DESCCREATEDDATA") SortComment sortComment) {
-        log.info("Get comments event with id = " + eventId + "from = " + from
+        log.info("Get comments event with id = " + eventId + "after = " + after + "from = " + from
                 + "size = " + size + "sort" + sortComment);
-        return eventService.getCommentToEvent(eventId, from, size, sortComment);
+        return eventService.getCommentToEvent(eventId, after, from, size, sortComment);
+    }
+
+    @GetMapping(value = "/events/{eventId}/comments/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamComments(@PathVariable @Positive int eventId) {
+        log.info("Subscribe to comments of event with id = {}", eventId);
+        eventService.checkEventPublished(eventId);
+        return commentFeed.subscribe(eventId);
+    }
+
+    @GetMapping(value = "/events/{eventId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeats(@PathVariable @Positive int eventId) {
+        log.info("Subscribe to seat availability of event with id = {}", eventId);
+        eventService.checkEventPublished(eventId);
+        return seatFeed.subscribe(eventId);
+    }
+
+    /**
+     * Answers 304 from the catalogue version alone when the client already has the current representation,
+     * before any database or stats-server call.
+     */
+    private <T> ResponseEntity<T> conditional(Catalog catalog, WebRequest webRequest, Supplier<T> body) {
+        String etag = catalogVersions.etag(catalog);
+        if (catalogVersions.matches(etag, webRequest.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                    .cacheControl(catalogVersions.cacheControl()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(catalogVersions.cacheControl()).body(body.get());
     }
-}
\ No newline at end of file
+}
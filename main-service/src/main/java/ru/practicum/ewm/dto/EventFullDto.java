@@ -26,5 +26,7 @@ public class EventFullDto {
     private boolean requestModeration;
     private boolean paid;
     private Integer views;
+    private Integer commentsCount;
+    private String lastCommentAt;
     private Set<CommentShortDto> comments;
 }
\ No newline at end of file
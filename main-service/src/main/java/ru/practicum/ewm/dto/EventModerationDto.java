@@ -0,0 +1,19 @@
+package ru.practicum.ewm.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.ewm.model.StateActionAdmin;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+@Data
+@NoArgsConstructor
+public class EventModerationDto {
+    @NotNull
+    @Positive
+    private Integer eventId;
+
+    @NotNull
+    private StateActionAdmin stateAction;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.ewm.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class EventModerationRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid EventModerationDto> events;
+}
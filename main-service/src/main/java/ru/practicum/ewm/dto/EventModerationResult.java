@@ -0,0 +1,18 @@
+package ru.practicum.ewm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.ewm.model.State;
+import ru.practicum.ewm.model.StateActionAdmin;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class EventModerationResult {
+    private Integer eventId;
+    private StateActionAdmin stateAction;
+    private boolean applied;
+    private State state;
+    private String error;
+}
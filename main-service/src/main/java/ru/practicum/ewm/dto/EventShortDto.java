@@ -15,4 +15,6 @@ public class EventShortDto {
     private String eventDate;
     private boolean paid;
     private Integer views;
+    private Integer commentsCount;
+    private String lastCommentAt;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.practicum.ewm.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@Data
+public class ImportEventDto extends NewEventDto {
+    @NotNull
+    @Positive
+    private Integer initiator;
+}
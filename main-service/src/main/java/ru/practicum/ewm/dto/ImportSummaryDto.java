@@ -0,0 +1,12 @@
+package ru.practicum.ewm.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ImportSummaryDto {
+    private int rows;
+    private int imported;
+    private int failed;
+}
@@ -0,0 +1,29 @@
+package ru.practicum.ewm.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.Length;
+
+import javax.validation.constraints.*;
+
+@Data
+@NoArgsConstructor
+public class NewZoneDto {
+    @NotBlank
+    @Length(min = 1, max = 120)
+    private String name;
+
+    @NotNull
+    @DecimalMin("-90")
+    @DecimalMax("90")
+    private Double lat;
+
+    @NotNull
+    @DecimalMin("-180")
+    @DecimalMax("180")
+    private Double lon;
+
+    @NotNull
+    @Positive
+    private Double radius;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.ewm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatAvailabilityDto {
+    private Integer eventId;
+    private Integer participantLimit;
+    private Integer confirmedRequests;
+    private Integer availableSeats;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.ewm.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ZoneDto {
+    private Integer id;
+
+    private String name;
+
+    private Double lat;
+
+    private Double lon;
+
+    private Double radius;
+}
@@ -6,6 +6,9 @@ import ru.practicum.ewm.dto.*;
 import ru.practicum.ewm.model.Comment;
 import ru.practicum.ewm.model.Compilation;
 import ru.practicum.ewm.model.Event;
+import ru.practicum.ewm.repository.view.CommentView;
+import ru.practicum.ewm.repository.view.EventFullView;
+import ru.practicum.ewm.repository.view.EventShortView;
 
 import java.util.List;
 
@@ -18,22 +21,20 @@ public interface EventAndCompilationMapper {
     @Mapping(target = "paid", source = "eventDto.paid", defaultValue = "false")
     @Mapping(target = "participantLimit", source = "eventDto.participantLimit", defaultValue = "0")
     @Mapping(target = "state", constant = "PENDING")
+    @Mapping(target = "confirmedRequests", constant = "0")
+    @Mapping(target = "commentsCount", constant = "0")
     Event toModelEvent(NewEventDto eventDto);
 
     @Mapping(target = "eventDate", source = "event.eventDate", dateFormat = "yyyy-MM-dd HH:mm:ss")
     @Mapping(target = "createdOn", source = "event.createdOn", dateFormat = "yyyy-MM-dd HH:mm:ss")
     @Mapping(target = "publishedOn", source = "event.publishedOn", dateFormat = "yyyy-MM-dd HH:mm:ss")
-    @Mapping(target = "confirmedRequests", expression = "java(event.getRequests()!= null ? " +
-            "event.getRequests().stream().filter(r -> r.getStatus() == ru.practicum.ewm.model.Status.CONFIRMED)" +
-            ".collect(java.util.stream.Collectors.toSet()).size():0)")
+    @Mapping(target = "lastCommentAt", source = "event.lastCommentAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
     @Mapping(target = "views", expression = "java(event.getViews()!= null ? " +
             "event.getViews():0)")
     EventFullDto toFullDtoEvent(Event event);
 
     @Mapping(target = "eventDate", source = "event.eventDate", dateFormat = "yyyy-MM-dd HH:mm:ss")
-    @Mapping(target = "confirmedRequests", expression = "java(event.getRequests()!= null ? " +
-            "event.getRequests().stream().filter(r -> r.getStatus() == ru.practicum.ewm.model.Status.CONFIRMED)" +
-            ".collect(java.util.stream.Collectors.toSet()).size():0)")
+    @Mapping(target = "lastCommentAt", source = "event.lastCommentAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
     @Mapping(target = "views", expression = "java(event.getViews()!= null ? " +
             "event.getViews():0)")
     EventShortDto toShortDtoEvent(Event event);
@@ -42,6 +43,43 @@ public interface EventAndCompilationMapper {
 
     List<EventShortDto> toDtoShortEvents(List<Event> events);
 
+    @Mapping(target = "category.id", source = "categoryId")
+    @Mapping(target = "category.name", source = "categoryName")
+    @Mapping(target = "initiator.id", source = "initiatorId")
+    @Mapping(target = "initiator.name", source = "initiatorName")
+    @Mapping(target = "eventDate", source = "eventDate", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "lastCommentAt", source = "lastCommentAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "views", expression = "java(view.getViews() != null ? view.getViews() : 0)")
+    EventShortDto toShortDtoEvent(EventShortView view);
+
+    @Mapping(target = "category.id", source = "categoryId")
+    @Mapping(target = "category.name", source = "categoryName")
+    @Mapping(target = "initiator.id", source = "initiatorId")
+    @Mapping(target = "initiator.name", source = "initiatorName")
+    @Mapping(target = "location.lat", source = "lat")
+    @Mapping(target = "location.lon", source = "lon")
+    @Mapping(target = "eventDate", source = "eventDate", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "createdOn", source = "createdOn", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "publishedOn", source = "publishedOn", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "lastCommentAt", source = "lastCommentAt", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "views", expression = "java(view.getViews() != null ? view.getViews() : 0)")
+    @Mapping(target = "comments", ignore = true)
+    EventFullDto toFullDtoEvent(EventFullView view);
+
+    List<EventShortDto> toDtoShortEventViews(List<EventShortView> views);
+
+    @Mapping(target = "created", source = "created", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    CommentShortDto toCommentShortDto(CommentView view);
+
+    @Mapping(target = "event.id", source = "eventId")
+    @Mapping(target = "event.title", source = "eventTitle")
+    @Mapping(target = "created", source = "created", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    CommentDto toCommentDto(CommentView view);
+
+    List<CommentShortDto> toCommentViewsShortDto(List<CommentView> views);
+
+    List<CommentDto> toCommentViewsDto(List<CommentView> views);
+
     @Mapping(target = "events", expression = "java(newCompilationDto.getEvents() != null ? " +
             "newCompilationDto.getEvents().stream().map(i -> new ru.practicum.ewm.model.Event(i))" +
             ".collect(java.util.stream.Collectors.toList()):new ArrayList<Event>())")
@@ -4,6 +4,8 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.ewm.dto.ParticipationRequestDto;
 import ru.practicum.ewm.model.Request;
+import ru.practicum.ewm.model.Status;
+import ru.practicum.ewm.repository.view.RequestView;
 
 import java.util.List;
 
@@ -16,5 +18,18 @@ public interface RequestMapper {
     @Mapping(target = "requester", source = "request.requester.id")
     ParticipationRequestDto toRequestDto(Request request);
 
-    List<ParticipationRequestDto> toRequestsDto(List<Request> requests);
+
+    @Mapping(target = "created", source = "view.created", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "event", source = "view.eventId")
+    @Mapping(target = "requester", source = "view.requesterId")
+    ParticipationRequestDto toRequestDto(RequestView view);
+
+    List<ParticipationRequestDto> toRequestViewsDto(List<RequestView> views);
+
+    @Mapping(target = "id", source = "view.id")
+    @Mapping(target = "created", source = "view.created", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "event", source = "view.eventId")
+    @Mapping(target = "requester", source = "view.requesterId")
+    @Mapping(target = "status", source = "status")
+    ParticipationRequestDto toRequestDto(RequestView view, Status status);
 }
\ No newline at end of file
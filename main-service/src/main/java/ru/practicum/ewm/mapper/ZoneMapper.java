@@ -0,0 +1,17 @@
+package ru.practicum.ewm.mapper;
+
+import org.mapstruct.Mapper;
+import ru.practicum.ewm.dto.NewZoneDto;
+import ru.practicum.ewm.dto.ZoneDto;
+import ru.practicum.ewm.model.Zone;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface ZoneMapper {
+    Zone toModelZone(NewZoneDto newZoneDto);
+
+    ZoneDto toDtoZone(Zone zone);
+
+    List<ZoneDto> toDtoZones(List<Zone> zones);
+}
@@ -0,0 +1,27 @@
+package ru.practicum.ewm.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "compilation_snapshots")
+public class CompilationSnapshot {
+    @Id
+    @Column(name = "compilation_id")
+    private Integer id;
+
+    private Boolean pinned;
+
+    private String snapshot;
+}
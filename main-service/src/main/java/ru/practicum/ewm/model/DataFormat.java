@@ -0,0 +1,6 @@
+package ru.practicum.ewm.model;
+
+public enum DataFormat {
+    NDJSON,
+    CSV
+}
@@ -37,7 +37,7 @@ public class Event {
     @JoinColumn(name = "initiator_id")
     private User initiator;
 
-    @OneToMany(mappedBy = "event", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "event", fetch = FetchType.LAZY)
     private Set<Request> requests;
 
     @Column(name = "event_date")
@@ -58,6 +58,8 @@ public class Event {
     })
     private Location location;
 
+    private String geohash;
+
     @Enumerated(EnumType.ORDINAL)
     private State state;
 
@@ -67,6 +69,15 @@ public class Event {
     @Column(name = "request_moderation")
     private Boolean requestModeration;
 
+    @Column(name = "confirmed_requests")
+    private Integer confirmedRequests;
+
+    @Column(name = "comments_count")
+    private Integer commentsCount;
+
+    @Column(name = "last_comment_at")
+    private LocalDateTime lastCommentAt;
+
     private Boolean paid;
 
     @Transient
@@ -75,6 +86,14 @@ public class Event {
     @OneToMany(mappedBy = "event", fetch = FetchType.LAZY)
     private Set<Comment> comments;
 
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "zones_events",
+            joinColumns = {@JoinColumn(name = "event_id")},
+            inverseJoinColumns = {@JoinColumn(name = "zone_id")}
+    )
+    private Set<Zone> zones;
+
     public Event(Integer id) {
         this.id = id;
     }
@@ -3,5 +3,6 @@ package ru.practicum.ewm.model;
 public enum State {
     PENDING,
     PUBLISHED,
-    CANCELED
+    CANCELED,
+    ARCHIVED
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package ru.practicum.ewm.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.ewm.utils.GeoHash;
+
+import javax.persistence.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "zones")
+public class Zone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "zone_id")
+    private Integer id;
+
+    private String name;
+
+    private Double lat;
+
+    private Double lon;
+
+    private Double radius;
+
+    public boolean contains(Location location) {
+        return GeoHash.distanceKm(lat, lon, location.getLat(), location.getLon()) <= radius;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.ewm.outbox;
+
+public enum ChangeAggregate {
+    EVENT,
+    REQUEST,
+    COMMENT,
+    COMPILATION
+}
@@ -0,0 +1,60 @@
+package ru.practicum.ewm.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes change records into the outbox table in the caller's transaction, so a record is committed exactly when
+ * the change it describes is. {@link OutboxPoller} hands committed records to the {@link ChangePublisher}.
+ */
+@Component
+public class ChangeOutbox {
+    private static final String INSERT = "INSERT INTO outbox (aggregate, aggregate_id, event_id, change_type) " +
+            "VALUES (?, ?, ?, ?)";
+    private static final int CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public ChangeOutbox(JdbcTemplate jdbcTemplate, @Value("${ewm.outbox.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeAggregate aggregate, int aggregateId, Integer eventId, ChangeType type) {
+        if (enabled) {
+            jdbcTemplate.update(INSERT, aggregate.ordinal(), aggregateId, eventId, type.ordinal());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordEvents(Collection<Integer> eventIds, ChangeType type) {
+        insert(eventIds.stream()
+                .map(id -> new Object[]{ChangeAggregate.EVENT.ordinal(), id, id, type.ordinal()})
+                .collect(Collectors.toList()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeAggregate aggregate, Collection<Integer> aggregateIds, int eventId, ChangeType type) {
+        insert(aggregateIds.stream()
+                .map(id -> new Object[]{aggregate.ordinal(), id, eventId, type.ordinal()})
+                .collect(Collectors.toList()));
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (!enabled || rows.isEmpty()) {
+            return;
+        }
+        for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+            jdbcTemplate.batchUpdate(INSERT, rows.subList(from, Math.min(rows.size(), from + CHUNK_SIZE)));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.ewm.outbox;
+
+import java.util.List;
+
+/**
+ * Delivers outbox records to their consumers. Records of a batch are in outbox order; a batch whose publish throws
+ * is delivered again on the next poll, so delivery is at least once.
+ */
+public interface ChangePublisher {
+    void publish(List<ChangeRecord> changes);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.ewm.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed change of one entity. Event, request and comment records carry the id of the event they belong to,
+ * compilation records have none.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ChangeRecord {
+    private final long id;
+    private final ChangeAggregate aggregate;
+    private final int aggregateId;
+    private final Integer eventId;
+    private final ChangeType type;
+    private final LocalDateTime created;
+}
@@ -0,0 +1,7 @@
+package ru.practicum.ewm.outbox;
+
+import java.util.List;
+
+public interface ChangeSubscriber {
+    void onChanges(List<ChangeRecord> changes);
+}
@@ -0,0 +1,7 @@
+package ru.practicum.ewm.outbox;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
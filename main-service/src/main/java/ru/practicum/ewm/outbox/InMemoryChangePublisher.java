@@ -0,0 +1,28 @@
+package ru.practicum.ewm.outbox;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes to the {@link ChangeSubscriber} beans of this instance, in their order, on the poller thread.
+ */
+@Component
+@ConditionalOnProperty(value = "ewm.outbox.publisher", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryChangePublisher implements ChangePublisher {
+    private final List<ChangeSubscriber> subscribers;
+
+    public InMemoryChangePublisher(ObjectProvider<ChangeSubscriber> subscribers) {
+        this.subscribers = subscribers.orderedStream().collect(Collectors.toList());
+    }
+
+    @Override
+    public void publish(List<ChangeRecord> changes) {
+        for (ChangeSubscriber subscriber : subscribers) {
+            subscriber.onChanges(changes);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.ewm.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes committed outbox records in id order and deletes them in the same transaction. The batch is locked
+ * while it is published, so pollers on several nodes do not deliver it twice, and a failed publish rolls back and
+ * is retried on the next poll.
+ * <p>
+ * The batch is locked with NOWAIT: a poller that finds the head of the outbox locked by another node skips its
+ * poll instead of waiting behind it. SKIP LOCKED would let it publish the next batch concurrently and break the
+ * id order.
+ * <p>
+ * Ids are assigned when a record is written, not at commit, so a record of a transaction that commits late can
+ * follow records with higher ids. Writers that lock the event row before recording keep the records of one event in
+ * commit order; subscribers should treat records as signals to re-read the current state.
+ */
+@Slf4j
+@Component
+public class OutboxPoller {
+    private static final ChangeAggregate[] AGGREGATES = ChangeAggregate.values();
+    private static final ChangeType[] TYPES = ChangeType.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangePublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public OutboxPoller(JdbcTemplate jdbcTemplate,
+                        ChangePublisher publisher,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${ewm.outbox.enabled:false}") boolean enabled,
+                        @Value("${ewm.outbox.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.publisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.outbox.interval-ms:1000}",
+            initialDelayString = "${ewm.outbox.interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        int published;
+        do {
+            try {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } catch (CannotAcquireLockException e) {
+                log.debug("Outbox is being published by another poller");
+                return;
+            }
+            if (published > 0) {
+                log.debug("Published {} outbox records", published);
+            }
+        } while (published == batchSize);
+    }
+
+    private int publishBatch() {
+        List<ChangeRecord> changes = jdbcTemplate.query("SELECT outbox_id, aggregate, aggregate_id, " +
+                        "event_id, change_type, created FROM outbox ORDER BY outbox_id LIMIT ? FOR UPDATE NOWAIT",
+                (rs, rowNum) -> new ChangeRecord(rs.getLong("outbox_id"), AGGREGATES[rs.getInt("aggregate")],
+                        rs.getInt("aggregate_id"), (Integer) rs.getObject("event_id"),
+                        TYPES[rs.getInt("change_type")], rs.getTimestamp("created").toLocalDateTime()),
+                batchSize);
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        publisher.publish(changes);
+        jdbcTemplate.batchUpdate("DELETE FROM outbox WHERE outbox_id = ?", changes.stream()
+                .map(change -> new Object[]{change.getId()})
+                .collect(Collectors.toList()));
+        return changes.size();
+    }
+}
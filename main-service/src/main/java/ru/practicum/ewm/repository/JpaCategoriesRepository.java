@@ -1,7 +1,16 @@
 package ru.practicum.ewm.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.ewm.model.Category;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface JpaCategoriesRepository extends JpaRepository<Category, Integer> {
-}
\ No newline at end of file
+    @Query("Select c.id from Category c Where c.id IN :ids")
+    List<Integer> findIdsByIdIn(Collection<Integer> ids);
+
+    @Query("Select c.name from Category c Where c.name IN :names")
+    List<String> findNamesByNameIn(Collection<String> names);
+}
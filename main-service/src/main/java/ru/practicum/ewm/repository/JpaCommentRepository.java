@@ -1,26 +1,75 @@
 package ru.practicum.ewm.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.ewm.model.Comment;
+import ru.practicum.ewm.repository.view.CommentView;
 import ru.practicum.ewm.utils.OffsetBasedPageRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface JpaCommentRepository extends JpaRepository<Comment, Integer> {
+    String VIEW = "Select new ru.practicum.ewm.repository.view.CommentView(e.id, c.id, c.text, a.name, c.created, " +
+            "e.title) from Comment c join c.author a join c.event e ";
 
-    List<Comment> findByAuthor_IdOrderByCreatedAsc(int authorId, OffsetBasedPageRequest pageable);
+    List<Comment> findByAuthor_IdOrderByCreatedAscIdAsc(int authorId, OffsetBasedPageRequest pageable);
 
-    List<Comment> findByAuthor_IdOrderByCreatedDesc(int authorId, OffsetBasedPageRequest pageable);
+    List<Comment> findByAuthor_IdOrderByCreatedDescIdDesc(int authorId, OffsetBasedPageRequest pageable);
 
-    List<Comment> findByAuthor_IdOrderByEventIdAsc(int authorId, OffsetBasedPageRequest pageable);
+    List<Comment> findByAuthor_IdOrderByEventIdAscIdAsc(int authorId, OffsetBasedPageRequest pageable);
 
-    List<Comment> findByAuthor_IdOrderByEventIdDesc(int authorId, OffsetBasedPageRequest pageable);
+    List<Comment> findByAuthor_IdOrderByEventIdDescIdDesc(int authorId, OffsetBasedPageRequest pageable);
 
-    List<Comment> findByEvent_IdOrderByCreatedAsc(int eventId, OffsetBasedPageRequest pageable);
+    List<Comment> findByEvent_IdOrderByCreatedAscIdAsc(int eventId, OffsetBasedPageRequest pageable);
 
-    List<Comment> findByEvent_IdOrderByCreatedDesc(int eventId, OffsetBasedPageRequest pageable);
+    List<Comment> findByEvent_IdOrderByCreatedDescIdDesc(int eventId, OffsetBasedPageRequest pageable);
 
     List<Comment> findByEvent_IdOrderByEventIdAsc(int eventId, OffsetBasedPageRequest pageable);
 
     List<Comment> findByEvent_IdOrderByEventIdDesc(int eventId, OffsetBasedPageRequest pageable);
-}
\ No newline at end of file
+
+    @Query("Select distinct c.event.id from Comment c Where c.author.id = :authorId")
+    List<Integer> findEventIdsByAuthorId(int authorId);
+
+    @Query(VIEW + "Where e.id IN :eventIds")
+    List<CommentView> findViewsByEventIdIn(Collection<Integer> eventIds);
+
+    @Query(VIEW + "Where c.id = :id AND e.id = :eventId")
+    Optional<CommentView> findViewByIdAndEventId(int id, int eventId);
+
+    @Query(VIEW + "Where c.id = :id AND a.id = :authorId")
+    Optional<CommentView> findViewByIdAndAuthorId(int id, int authorId);
+
+    @Query(VIEW + "Where e.id = :eventId AND (c.created < :created OR (c.created = :created AND c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findViewsByEventIdBefore(int eventId, LocalDateTime created, int id,
+                                               OffsetBasedPageRequest pageable);
+
+    @Query(VIEW + "Where e.id = :eventId AND (c.created > :created OR (c.created = :created AND c.id > :id)) " +
+            "order by c.created, c.id")
+    List<CommentView> findViewsByEventIdAfter(int eventId, LocalDateTime created, int id,
+                                              OffsetBasedPageRequest pageable);
+
+    @Query(VIEW + "Where a.id = :authorId AND (c.created < :created OR (c.created = :created AND c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findViewsByAuthorIdBefore(int authorId, LocalDateTime created, int id,
+                                                OffsetBasedPageRequest pageable);
+
+    @Query(VIEW + "Where a.id = :authorId AND (c.created > :created OR (c.created = :created AND c.id > :id)) " +
+            "order by c.created, c.id")
+    List<CommentView> findViewsByAuthorIdAfter(int authorId, LocalDateTime created, int id,
+                                               OffsetBasedPageRequest pageable);
+
+    @Query(VIEW + "Where a.id = :authorId AND (e.id < :eventId OR (e.id = :eventId AND c.id < :id)) " +
+            "order by e.id desc, c.id desc")
+    List<CommentView> findViewsByAuthorIdBeforeEvent(int authorId, int eventId, int id,
+                                                     OffsetBasedPageRequest pageable);
+
+    @Query(VIEW + "Where a.id = :authorId AND (e.id > :eventId OR (e.id = :eventId AND c.id > :id)) " +
+            "order by e.id, c.id")
+    List<CommentView> findViewsByAuthorIdAfterEvent(int authorId, int eventId, int id,
+                                                    OffsetBasedPageRequest pageable);
+}
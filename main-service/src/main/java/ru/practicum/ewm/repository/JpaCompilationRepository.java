@@ -1,6 +1,7 @@
 package ru.practicum.ewm.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.ewm.model.Compilation;
 import ru.practicum.ewm.utils.OffsetBasedPageRequest;
 
@@ -10,4 +11,16 @@ import java.util.List;
 public interface JpaCompilationRepository extends JpaRepository<Compilation, Integer> {
 
     List<Compilation> findByPinned(boolean pinned, OffsetBasedPageRequest pageable);
+
+    @Query("Select distinct c.id from Compilation c join c.events e Where e.id = :eventId")
+    List<Integer> findIdsByEventId(int eventId);
+
+    @Query("Select distinct c.id from Compilation c join c.events e Where e.category.id = :categoryId")
+    List<Integer> findIdsByEventCategoryId(int categoryId);
+
+    @Query("Select distinct c.id from Compilation c join c.events e Where e.initiator.id = :initiatorId")
+    List<Integer> findIdsByEventInitiatorId(int initiatorId);
+
+    @Query("Select c.id from Compilation c Where c.id NOT IN (Select s.id from CompilationSnapshot s)")
+    List<Integer> findIdsWithoutSnapshot();
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.practicum.ewm.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.ewm.model.CompilationSnapshot;
+import ru.practicum.ewm.utils.OffsetBasedPageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface JpaCompilationSnapshotRepository extends JpaRepository<CompilationSnapshot, Integer> {
+    @Query("Select s.snapshot from CompilationSnapshot s Where s.id = :id")
+    Optional<String> findSnapshotById(int id);
+
+    @Query("Select s.snapshot from CompilationSnapshot s order by s.id")
+    List<String> findSnapshots(OffsetBasedPageRequest pageable);
+
+    @Query("Select s.snapshot from CompilationSnapshot s Where s.pinned = :pinned order by s.id")
+    List<String> findSnapshotsByPinned(boolean pinned, OffsetBasedPageRequest pageable);
+}
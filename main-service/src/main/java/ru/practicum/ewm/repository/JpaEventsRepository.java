@@ -1,101 +1,234 @@
 package ru.practicum.ewm.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.ewm.model.Event;
 import ru.practicum.ewm.model.State;
+import ru.practicum.ewm.repository.view.EventCountersView;
+import ru.practicum.ewm.repository.view.EventFullView;
+import ru.practicum.ewm.repository.view.EventLimitView;
+import ru.practicum.ewm.repository.view.EventLocationView;
+import ru.practicum.ewm.repository.view.EventModerationView;
+import ru.practicum.ewm.repository.view.EventSeatsView;
+import ru.practicum.ewm.repository.view.EventShortView;
 import ru.practicum.ewm.utils.OffsetBasedPageRequest;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface JpaEventsRepository extends JpaRepository<Event, Integer> {
-    List<Event> findByInitiatorId(int initiatorId, OffsetBasedPageRequest pageable);
-
-    List<Event> findByInitiatorIdInAndStateInAndCategoryIdInAndEventDateAfterAndEventDateBefore(List<Integer> users,
-                                                                                                List<State> states,
-                                                                                                List<Integer> categories,
-                                                                                                LocalDateTime rangeStart,
-                                                                                                LocalDateTime rangeEnd,
-                                                                                                OffsetBasedPageRequest
-                                                                                                        pageable);
-
-    List<Event> findByStateInAndCategoryIdInAndEventDateAfterAndEventDateBefore(List<State> states,
-                                                                                List<Integer> categories,
-                                                                                LocalDateTime rangeStart,
-                                                                                LocalDateTime rangeEnd,
-                                                                                OffsetBasedPageRequest pageable);
-
-    List<Event> findByInitiatorIdInAndStateInAndEventDateAfterAndEventDateBefore(List<Integer> users,
-                                                                                 List<State> states,
-                                                                                 LocalDateTime rangeStart,
-                                                                                 LocalDateTime rangeEnd,
-                                                                                 OffsetBasedPageRequest pageable);
-
-    List<Event> findByStateInAndEventDateAfterAndEventDateBefore(List<State> states,
-                                                                 LocalDateTime rangeStart,
-                                                                 LocalDateTime rangeEnd,
-                                                                 OffsetBasedPageRequest pageable);
+    String VIEW_COLUMNS = "e.id, e.title, e.annotation, c.id, c.name, u.id, u.name, e.confirmedRequests, " +
+            "e.eventDate, e.paid, e.state, e.publishedOn, e.participantLimit, e.location.lat, e.location.lon, " +
+            "e.commentsCount, e.lastCommentAt";
+    String VIEW_FROM = " from Event e join e.category c join e.initiator u ";
+    String SHORT_VIEW = "Select new ru.practicum.ewm.repository.view.EventShortView(" + VIEW_COLUMNS + ")"
+            + VIEW_FROM;
+    String FULL_VIEW = "Select new ru.practicum.ewm.repository.view.EventFullView(" + VIEW_COLUMNS +
+            ", e.description, e.createdOn, e.requestModeration)" + VIEW_FROM;
+
+    @Query(SHORT_VIEW + "Where u.id = :initiatorId")
+    List<EventShortView> findByInitiatorId(int initiatorId, OffsetBasedPageRequest pageable);
+
+    @Query("Select e.id from Event e Where e.initiator.id = :initiatorId")
+    List<Integer> findIdsByInitiatorId(int initiatorId);
+
+    @Query(FULL_VIEW + "Where u.id IN :users AND e.state IN :states AND c.id IN :categories " +
+            "AND e.eventDate > :rangeStart AND e.eventDate < :rangeEnd")
+    List<EventFullView> findByInitiatorIdInAndStateInAndCategoryIdInAndEventDateAfterAndEventDateBefore(
+            List<Integer> users, List<State> states, List<Integer> categories, LocalDateTime rangeStart,
+            LocalDateTime rangeEnd, OffsetBasedPageRequest pageable);
+
+    @Query(FULL_VIEW + "Where e.state IN :states AND c.id IN :categories " +
+            "AND e.eventDate > :rangeStart AND e.eventDate < :rangeEnd")
+    List<EventFullView> findByStateInAndCategoryIdInAndEventDateAfterAndEventDateBefore(List<State> states,
+                                                                                    List<Integer> categories,
+                                                                                    LocalDateTime rangeStart,
+                                                                                    LocalDateTime rangeEnd,
+                                                                                    OffsetBasedPageRequest pageable);
+
+    @Query(FULL_VIEW + "Where u.id IN :users AND e.state IN :states " +
+            "AND e.eventDate > :rangeStart AND e.eventDate < :rangeEnd")
+    List<EventFullView> findByInitiatorIdInAndStateInAndEventDateAfterAndEventDateBefore(List<Integer> users,
+                                                                                     List<State> states,
+                                                                                     LocalDateTime rangeStart,
+                                                                                     LocalDateTime rangeEnd,
+                                                                                     OffsetBasedPageRequest pageable);
+
+    @Query(FULL_VIEW + "Where e.state IN :states AND e.eventDate > :rangeStart AND e.eventDate < :rangeEnd")
+    List<EventFullView> findByStateInAndEventDateAfterAndEventDateBefore(List<State> states,
+                                                                     LocalDateTime rangeStart,
+                                                                     LocalDateTime rangeEnd,
+                                                                     OffsetBasedPageRequest pageable);
 
     Optional<Event> findByIdAndInitiatorId(int id, int initiatorId);
 
-    @Query("Select e from Event e Where e.id = :id AND e.state = ru.practicum.ewm.model.State.PUBLISHED")
+    @Query("Select e from Event e Where e.id = :id AND e.state IN (ru.practicum.ewm.model.State.PUBLISHED, " +
+            "ru.practicum.ewm.model.State.ARCHIVED)")
     Optional<Event> findByIdAndState(int id);
 
-    @Query("Select e from Event e Where e.eventDate > :rangeStart AND e.eventDate < :rangeEnd" +
+    @Query(SHORT_VIEW + "Where e.eventDate > :rangeStart AND e.eventDate < :rangeEnd" +
             " AND e.state = ru.practicum.ewm.model.State.PUBLISHED")
-    List<Event> findByStatePublishedAndEventDateAfterAndEventDateBefore(LocalDateTime rangeStart,
-                                                                        LocalDateTime rangeEnd);
+    List<EventShortView> findByStatePublishedAndEventDateAfterAndEventDateBefore(LocalDateTime rangeStart,
+                                                                                 LocalDateTime rangeEnd);
 
-    @Query("Select e from Event e Where e.category.id IN :categories AND e.eventDate > :rangeStart " +
+    @Query(SHORT_VIEW + "Where e.category.id IN :categories AND e.eventDate > :rangeStart " +
             "AND e.eventDate < :rangeEnd AND e.state = ru.practicum.ewm.model.State.PUBLISHED")
-    List<Event> findByStatePublishedAndCategoryIdInAndEventDateAfterAndEventDateBefore(List<Integer> categories,
-                                                                                       LocalDateTime rangeStart,
-                                                                                       LocalDateTime rangeEnd);
+    List<EventShortView> findByStatePublishedAndCategoryIdInAndEventDateAfterAndEventDateBefore(
+            List<Integer> categories, LocalDateTime rangeStart, LocalDateTime rangeEnd);
 
-    @Query("Select e from Event e Where (upper(e.annotation) like CONCAT('%',UPPER(:text),'%') " +
+    @Query(SHORT_VIEW + "Where (upper(e.annotation) like CONCAT('%',UPPER(:text),'%') " +
             "or upper(e.description) like CONCAT('%',UPPER(:text),'%')) AND e.eventDate > :rangeStart " +
             "AND e.eventDate < :rangeEnd AND e.state = ru.practicum.ewm.model.State.PUBLISHED")
-    List<Event> findByStatePublishedAndTextAndEventDateAfterAndEventDateBefore(String text,
-                                                                               LocalDateTime rangeStart,
-                                                                               LocalDateTime rangeEnd);
+    List<EventShortView> findByStatePublishedAndTextAndEventDateAfterAndEventDateBefore(String text,
+                                                                                        LocalDateTime rangeStart,
+                                                                                        LocalDateTime rangeEnd);
 
-    @Query("Select e from Event e Where e.category.id IN :categories " +
+    @Query(SHORT_VIEW + "Where e.category.id IN :categories " +
             "AND (upper(e.annotation) like CONCAT('%',UPPER(:text),'%') " +
             "or upper(e.description) like CONCAT('%',UPPER(:text),'%')) " +
             "AND e.eventDate > :rangeStart AND e.eventDate < :rangeEnd " +
             "AND e.state = ru.practicum.ewm.model.State.PUBLISHED")
-    List<Event> findByStatePublishedFullFilter(String text, List<Integer> categories,
-                                               LocalDateTime rangeStart, LocalDateTime rangeEnd);
+    List<EventShortView> findByStatePublishedFullFilter(String text, List<Integer> categories,
+                                                        LocalDateTime rangeStart, LocalDateTime rangeEnd);
 
-    @Query("Select e from Event e Where e.eventDate > :rangeStart AND e.eventDate < :rangeEnd" +
+    @Query(SHORT_VIEW + "Where e.eventDate > :rangeStart AND e.eventDate < :rangeEnd" +
             " AND e.state = ru.practicum.ewm.model.State.PUBLISHED AND e.paid = :paid")
-    List<Event> findByStatePublishedAndEventDateAfterAndEventDateBefore(LocalDateTime rangeStart,
-                                                                        LocalDateTime rangeEnd, Boolean paid);
+    List<EventShortView> findByStatePublishedAndEventDateAfterAndEventDateBefore(LocalDateTime rangeStart,
+                                                                                 LocalDateTime rangeEnd, Boolean paid);
 
-    @Query("Select e from Event e Where e.category.id IN :categories AND e.eventDate > :rangeStart " +
+    @Query(SHORT_VIEW + "Where e.category.id IN :categories AND e.eventDate > :rangeStart " +
             "AND e.eventDate < :rangeEnd AND e.state = ru.practicum.ewm.model.State.PUBLISHED AND e.paid = :paid")
-    List<Event> findByStatePublishedAndCategoryIdInAndEventDateAfterAndEventDateBefore(List<Integer> categories,
-                                                                                       LocalDateTime rangeStart,
-                                                                                       LocalDateTime rangeEnd,
-                                                                                       Boolean paid);
+    List<EventShortView> findByStatePublishedAndCategoryIdInAndEventDateAfterAndEventDateBefore(
+            List<Integer> categories, LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean paid);
 
-    @Query("Select e from Event e Where (upper(e.annotation) like CONCAT('%',UPPER(:text),'%') " +
+    @Query(SHORT_VIEW + "Where (upper(e.annotation) like CONCAT('%',UPPER(:text),'%') " +
             "or upper(e.description) like CONCAT('%',UPPER(:text),'%')) AND e.eventDate > :rangeStart " +
             "AND e.eventDate < :rangeEnd AND e.state = ru.practicum.ewm.model.State.PUBLISHED AND e.paid = :paid")
-    List<Event> findByStatePublishedAndTextAndEventDateAfterAndEventDateBefore(String text,
-                                                                               LocalDateTime rangeStart,
-                                                                               LocalDateTime rangeEnd,
-                                                                               Boolean paid);
+    List<EventShortView> findByStatePublishedAndTextAndEventDateAfterAndEventDateBefore(String text,
+                                                                                        LocalDateTime rangeStart,
+                                                                                        LocalDateTime rangeEnd,
+                                                                                        Boolean paid);
 
-    @Query("Select e from Event e Where e.category.id IN :categories " +
+    @Query(SHORT_VIEW + "Where e.category.id IN :categories " +
             "AND (upper(e.annotation) like CONCAT('%',UPPER(:text),'%') " +
             "or upper(e.description) like CONCAT('%',UPPER(:text),'%')) " +
             "AND e.eventDate > :rangeStart AND e.eventDate < :rangeEnd " +
             "AND e.state = ru.practicum.ewm.model.State.PUBLISHED AND e.paid = :paid")
-    List<Event> findByStatePublishedFullFilter(String text, List<Integer> categories,
-                                               LocalDateTime rangeStart, LocalDateTime rangeEnd,
-                                               Boolean paid);
+    List<EventShortView> findByStatePublishedFullFilter(String text, List<Integer> categories,
+                                                        LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                        Boolean paid);
+
+    @Query(SHORT_VIEW + "Where e.geohash >= :low AND e.geohash <= :high " +
+            "AND e.eventDate > :rangeStart AND e.state = ru.practicum.ewm.model.State.PUBLISHED")
+    List<EventShortView> findByStatePublishedAndGeohashBetweenAndEventDateAfter(String low, String high,
+                                                                                LocalDateTime rangeStart);
+
+    @Query("Select e.id as id, e.location.lat as lat, e.location.lon as lon from Event e " +
+            "Where e.geohash >= :low AND e.geohash <= :high")
+    List<EventLocationView> findLocationsByGeohashBetween(String low, String high);
+
+    @Query(SHORT_VIEW + "join e.zones z Where z.id = :zoneId AND e.eventDate > :rangeStart " +
+            "AND e.state = ru.practicum.ewm.model.State.PUBLISHED order by e.eventDate, e.id")
+    List<EventShortView> findByStatePublishedAndZoneIdAndEventDateAfter(int zoneId, LocalDateTime rangeStart,
+                                                                        OffsetBasedPageRequest pageable);
+
+    boolean existsByIdAndInitiatorId(int id, int initiatorId);
+
+    boolean existsByIdAndStateIn(int id, Collection<State> states);
+
+    @Query(SHORT_VIEW + "Where e.eventDate > :rangeStart AND e.eventDate < :rangeEnd " +
+            "AND e.state = ru.practicum.ewm.model.State.ARCHIVED order by e.eventDate desc, e.id desc")
+    List<EventShortView> findByStateArchivedAndEventDateAfterAndEventDateBefore(LocalDateTime rangeStart,
+                                                                                LocalDateTime rangeEnd,
+                                                                                OffsetBasedPageRequest pageable);
 
-}
\ No newline at end of file
+    @Query(SHORT_VIEW + "Where e.category.id IN :categories AND e.eventDate > :rangeStart " +
+            "AND e.eventDate < :rangeEnd AND e.state = ru.practicum.ewm.model.State.ARCHIVED " +
+            "order by e.eventDate desc, e.id desc")
+    List<EventShortView> findByStateArchivedAndCategoryIdInAndEventDateAfterAndEventDateBefore(
+            List<Integer> categories, LocalDateTime rangeStart, LocalDateTime rangeEnd,
+            OffsetBasedPageRequest pageable);
+
+    @Query("Select e.id from Event e Where e.state = ru.practicum.ewm.model.State.PUBLISHED " +
+            "AND e.eventDate < :before order by e.eventDate")
+    List<Integer> findIdsByStatePublishedAndEventDateBefore(LocalDateTime before, OffsetBasedPageRequest pageable);
+
+    @Modifying
+    @Query("Update Event e Set e.state = ru.practicum.ewm.model.State.ARCHIVED " +
+            "Where e.id IN :ids AND e.state = ru.practicum.ewm.model.State.PUBLISHED AND e.eventDate < :before")
+    int archivePublishedByIdIn(Collection<Integer> ids, LocalDateTime before);
+
+    @Query("Select new ru.practicum.ewm.repository.view.EventSeatsView(e.id, e.participantLimit, " +
+            "e.confirmedRequests) from Event e Where e.id IN :ids")
+    List<EventSeatsView> findSeatsByIdIn(Collection<Integer> ids);
+
+    @Query("Select new ru.practicum.ewm.repository.view.EventCountersView(e.id, e.confirmedRequests, " +
+            "e.commentsCount, e.lastCommentAt) from Event e Where e.id IN :ids")
+    List<EventCountersView> findCountersByIdIn(Collection<Integer> ids);
+
+    @Query(value = "SELECT event_id FROM events WHERE event_id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockById(int id);
+
+    @Query("Select new ru.practicum.ewm.repository.view.EventLimitView(e.state, e.participantLimit, " +
+            "e.requestModeration, e.confirmedRequests) from Event e Where e.id = :id AND e.initiator.id = :initiatorId")
+    Optional<EventLimitView> findLimitByIdAndInitiatorId(int id, int initiatorId);
+
+    @Query("Select new ru.practicum.ewm.repository.view.EventLimitView(e.state, e.participantLimit, " +
+            "e.requestModeration, e.confirmedRequests) from Event e Where e.id = :id")
+    Optional<EventLimitView> findLimitById(int id);
+
+    @Query(value = "SELECT event_id FROM events WHERE event_id IN :ids ORDER BY event_id FOR UPDATE",
+            nativeQuery = true)
+    List<Integer> lockByIdIn(Collection<Integer> ids);
+
+    @Query("Select new ru.practicum.ewm.repository.view.EventModerationView(e.id, e.state, e.eventDate) " +
+            "from Event e Where e.id IN :ids")
+    List<EventModerationView> findModerationByIdIn(Collection<Integer> ids);
+
+    @Modifying
+    @Query("Update Event e Set e.state = ru.practicum.ewm.model.State.PUBLISHED, e.publishedOn = :publishedOn " +
+            "Where e.id IN :ids AND e.state = ru.practicum.ewm.model.State.PENDING")
+    int publishPendingByIdIn(Collection<Integer> ids, LocalDateTime publishedOn);
+
+    @Modifying
+    @Query("Update Event e Set e.state = ru.practicum.ewm.model.State.CANCELED " +
+            "Where e.id IN :ids AND e.state IN (ru.practicum.ewm.model.State.PENDING, " +
+            "ru.practicum.ewm.model.State.CANCELED)")
+    int cancelNotPublishedByIdIn(Collection<Integer> ids);
+
+    @Modifying
+    @Query("Update Event e Set e.confirmedRequests = e.confirmedRequests + :delta Where e.id = :id")
+    int addConfirmedRequests(int id, int delta);
+
+    @Modifying
+    @Query("Update Event e Set e.commentsCount = e.commentsCount + 1, e.lastCommentAt = CASE " +
+            "WHEN e.lastCommentAt IS NULL OR e.lastCommentAt < :created THEN :created ELSE e.lastCommentAt END " +
+            "Where e.id = :id")
+    int incrementCommentsCount(int id, LocalDateTime created);
+
+    @Modifying
+    @Query("Update Event e Set e.commentsCount = e.commentsCount - 1, " +
+            "e.lastCommentAt = (Select max(c.created) from Comment c Where c.event.id = :id) Where e.id = :id")
+    int decrementCommentsCount(int id);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "events"))
+    @Query(value = "UPDATE events SET comments_count = comments_count - (SELECT count(*) FROM comments c " +
+            "WHERE c.event_id = events.event_id AND c.author_id = :authorId), last_comment_at = (SELECT max(created) " +
+            "FROM comments c WHERE c.event_id = events.event_id AND c.author_id <> :authorId) " +
+            "WHERE event_id IN (SELECT event_id FROM comments WHERE author_id = :authorId)", nativeQuery = true)
+    int subtractCommentsOfAuthor(int authorId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "events"))
+    @Query(value = "UPDATE events SET confirmed_requests = confirmed_requests - (SELECT count(*) FROM requests r " +
+            "WHERE r.event_id = events.event_id AND r.requester_id = :requesterId AND r.status = :status) " +
+            "WHERE event_id IN (SELECT event_id FROM requests WHERE requester_id = :requesterId AND status = :status)",
+            nativeQuery = true)
+    int subtractRequestsOfRequester(int requesterId, int status);
+}
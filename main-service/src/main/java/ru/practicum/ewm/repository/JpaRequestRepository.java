@@ -1,22 +1,73 @@
 package ru.practicum.ewm.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.ewm.model.Request;
 import ru.practicum.ewm.model.Status;
+import ru.practicum.ewm.repository.view.RequestView;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface JpaRequestRepository extends JpaRepository<Request, Integer> {
+    String VIEW = "Select new ru.practicum.ewm.repository.view.RequestView(r.id, r.created, r.event.id, " +
+            "r.requester.id, r.status) from Request r ";
 
     Optional<Request> findByIdAndRequesterId(int id, int requesterId);
 
-    List<Request> findByRequesterId(int requesterId);
 
     List<Request> findByRequesterIdAndEventId(int requesterId, int eventId);
 
     List<Request> findByEventIdAndStatus(int id, Status status);
 
-    List<Request> findByEventId(int id);
-}
\ No newline at end of file
+
+    @Query("Select r.event.id from Request r Where r.id = :id AND r.requester.id = :requesterId")
+    Optional<Integer> findEventIdByIdAndRequesterId(int id, int requesterId);
+
+    @Query("Select distinct r.event.id from Request r Where r.requester.id = :requesterId " +
+            "AND r.status = ru.practicum.ewm.model.Status.CONFIRMED")
+    List<Integer> findConfirmedEventIdsByRequesterId(int requesterId);
+
+    @Query("Select r.id from Request r Where r.event.id = :eventId " +
+            "AND r.status = ru.practicum.ewm.model.Status.PENDING order by r.created, r.id")
+    List<Integer> findPendingIdsByEventId(int eventId, Pageable pageable);
+
+    @Query(VIEW + "Where r.event.id = :eventId AND r.id IN :ids AND r.status = :status")
+    List<RequestView> findViewsByEventIdAndIdInAndStatus(int eventId, Collection<Integer> ids, Status status);
+
+    @Query(VIEW + "Where r.event.id = :eventId AND r.status = :status")
+    List<RequestView> findViewsByEventIdAndStatus(int eventId, Status status);
+
+    @Query(VIEW + "Where r.event.id = :eventId AND r.status IN :statuses AND r.id > :afterId order by r.id")
+    List<RequestView> findViewsByEventIdAndStatusInAndIdAfter(int eventId, Collection<Status> statuses, int afterId,
+                                                              Pageable pageable);
+
+    @Query(VIEW + "Where r.requester.id = :requesterId AND r.status IN :statuses AND r.id > :afterId order by r.id")
+    List<RequestView> findViewsByRequesterIdAndStatusInAndIdAfter(int requesterId, Collection<Status> statuses,
+                                                                  int afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW + "Where r.event.id = :eventId AND r.status IN :statuses order by r.id")
+    Stream<RequestView> streamViewsByEventIdAndStatusIn(int eventId, Collection<Status> statuses);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW + "Where r.requester.id = :requesterId order by r.id")
+    Stream<RequestView> streamViewsByRequesterId(int requesterId);
+
+    @Modifying
+    @Query("Update Request r Set r.status = :status Where r.event.id = :eventId AND r.id IN :ids " +
+            "AND r.status = ru.practicum.ewm.model.Status.PENDING")
+    int updatePendingStatusByEventIdAndIdIn(int eventId, Collection<Integer> ids, Status status);
+
+    @Modifying
+    @Query("Update Request r Set r.status = :status Where r.event.id = :eventId " +
+            "AND r.status = ru.practicum.ewm.model.Status.PENDING")
+    int updatePendingStatusByEventId(int eventId, Status status);
+}
@@ -2,12 +2,20 @@ package ru.practicum.ewm.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.ewm.model.User;
 import ru.practicum.ewm.utils.OffsetBasedPageRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface JpaUsersRepository extends JpaRepository<User, Integer> {
 
     Page<User> findByIdIn(List<Integer> ids, OffsetBasedPageRequest pageable);
-}
\ No newline at end of file
+
+    @Query("Select u.id from User u Where u.id IN :ids")
+    List<Integer> findIdsByIdIn(Collection<Integer> ids);
+
+    @Query("Select u.email from User u Where u.email IN :emails")
+    List<String> findEmailsByEmailIn(Collection<String> emails);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.ewm.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.ewm.model.Zone;
+import ru.practicum.ewm.utils.OffsetBasedPageRequest;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface JpaZoneRepository extends JpaRepository<Zone, Integer> {
+
+    List<Zone> findAllByOrderById(OffsetBasedPageRequest pageable);
+
+    @Query(value = "SELECT lock_id FROM zone_membership_lock WHERE lock_id = 1 FOR UPDATE", nativeQuery = true)
+    Integer lockMembership();
+
+    @Modifying
+    @Query(value = "INSERT INTO zones_events (zone_id, event_id) " +
+            "SELECT :zoneId, event_id FROM events WHERE event_id IN :eventIds", nativeQuery = true)
+    void addEvents(int zoneId, Collection<Integer> eventIds);
+}
@@ -0,0 +1,17 @@
+package ru.practicum.ewm.repository.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class CommentView {
+    private final Integer eventId;
+    private final Integer id;
+    private final String text;
+    private final String authorName;
+    private final LocalDateTime created;
+    private final String eventTitle;
+}
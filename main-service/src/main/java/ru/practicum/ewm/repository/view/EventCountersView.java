@@ -0,0 +1,15 @@
+package ru.practicum.ewm.repository.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class EventCountersView {
+    private final Integer id;
+    private final Integer confirmedRequests;
+    private final Integer commentsCount;
+    private final LocalDateTime lastCommentAt;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.ewm.repository.view;
+
+import lombok.Getter;
+import ru.practicum.ewm.model.State;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class EventFullView extends EventShortView {
+    private final String description;
+    private final LocalDateTime createdOn;
+    private final Boolean requestModeration;
+
+    public EventFullView(Integer id, String title, String annotation, Integer categoryId, String categoryName,
+                         Integer initiatorId, String initiatorName, Integer confirmedRequests,
+                         LocalDateTime eventDate, Boolean paid, State state, LocalDateTime publishedOn,
+                         Integer participantLimit, Float lat, Float lon, Integer commentsCount,
+                         LocalDateTime lastCommentAt, String description, LocalDateTime createdOn, Boolean requestModeration) {
+        super(id, title, annotation, categoryId, categoryName, initiatorId, initiatorName, confirmedRequests,
+                eventDate, paid, state, publishedOn, participantLimit, lat, lon, commentsCount, lastCommentAt);
+        this.description = description;
+        this.createdOn = createdOn;
+        this.requestModeration = requestModeration;
+    }
+}
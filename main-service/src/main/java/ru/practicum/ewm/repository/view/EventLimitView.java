@@ -0,0 +1,14 @@
+package ru.practicum.ewm.repository.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.ewm.model.State;
+
+@Getter
+@AllArgsConstructor
+public class EventLimitView {
+    private final State state;
+    private final Integer participantLimit;
+    private final Boolean requestModeration;
+    private final Integer confirmedRequests;
+}
@@ -0,0 +1,9 @@
+package ru.practicum.ewm.repository.view;
+
+public interface EventLocationView {
+    Integer getId();
+
+    Float getLat();
+
+    Float getLon();
+}
@@ -0,0 +1,15 @@
+package ru.practicum.ewm.repository.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.ewm.model.State;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class EventModerationView {
+    private final Integer id;
+    private final State state;
+    private final LocalDateTime eventDate;
+}
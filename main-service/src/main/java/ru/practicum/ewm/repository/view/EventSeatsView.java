@@ -0,0 +1,12 @@
+package ru.practicum.ewm.repository.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EventSeatsView {
+    private final Integer id;
+    private final Integer participantLimit;
+    private final Integer confirmedRequests;
+}
@@ -0,0 +1,58 @@
+package ru.practicum.ewm.repository.view;
+
+import lombok.Getter;
+import lombok.Setter;
+import ru.practicum.ewm.model.State;
+
+import java.time.LocalDateTime;
+
+/**
+ * Unmanaged row of an event listing: only the columns of {@link ru.practicum.ewm.dto.EventShortDto} plus what
+ * the listings filter and sort on.
+ */
+@Getter
+public class EventShortView {
+    private final Integer id;
+    private final String title;
+    private final String annotation;
+    private final Integer categoryId;
+    private final String categoryName;
+    private final Integer initiatorId;
+    private final String initiatorName;
+    private final Integer confirmedRequests;
+    private final LocalDateTime eventDate;
+    private final Boolean paid;
+    private final State state;
+    private final LocalDateTime publishedOn;
+    private final Integer participantLimit;
+    private final Float lat;
+    private final Float lon;
+    private final Integer commentsCount;
+    private final LocalDateTime lastCommentAt;
+    @Setter
+    private Integer views;
+
+    public EventShortView(Integer id, String title, String annotation, Integer categoryId, String categoryName,
+                          Integer initiatorId, String initiatorName, Integer confirmedRequests,
+                          LocalDateTime eventDate, Boolean paid, State state, LocalDateTime publishedOn,
+                          Integer participantLimit, Float lat, Float lon, Integer commentsCount,
+                          LocalDateTime lastCommentAt) {
+        this.id = id;
+        this.title = title;
+        this.annotation = annotation;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.initiatorId = initiatorId;
+        this.initiatorName = initiatorName;
+        this.confirmedRequests = confirmedRequests;
+        this.eventDate = eventDate;
+        this.paid = paid;
+        this.state = state;
+        this.publishedOn = publishedOn;
+        this.participantLimit = participantLimit;
+        this.lat = lat;
+        this.lon = lon;
+        this.commentsCount = commentsCount;
+        this.lastCommentAt = lastCommentAt;
+    }
+}
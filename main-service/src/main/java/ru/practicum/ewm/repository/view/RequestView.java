@@ -0,0 +1,17 @@
+package ru.practicum.ewm.repository.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.ewm.model.Status;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class RequestView {
+    private final Integer id;
+    private final LocalDateTime created;
+    private final Integer eventId;
+    private final Integer requesterId;
+    private final Status status;
+}
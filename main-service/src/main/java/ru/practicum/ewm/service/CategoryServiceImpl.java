@@ -1,8 +1,12 @@
 package ru.practicum.ewm.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.cache.Catalog;
+import ru.practicum.ewm.cache.CatalogChange;
+import ru.practicum.ewm.cache.CompilationSnapshots;
 import ru.practicum.ewm.dto.CategoryDto;
 import ru.practicum.ewm.dto.NewCategoryDto;
 import ru.practicum.ewm.exception.CategoryNotEmptyException;
@@ -19,10 +23,13 @@ import java.util.List;
 public class CategoryServiceImpl implements CategoryService {
     private final JpaCategoriesRepository repository;
     private final CategoryMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CompilationSnapshots compilationSnapshots;
 
     @Override
     @Transactional
     public CategoryDto saveCategory(NewCategoryDto newCategoryDto) {
+        eventPublisher.publishEvent(new CatalogChange(Catalog.CATEGORIES));
         return mapper.toDtoCategory(repository.save(mapper.toModelCategory(newCategoryDto)));
     }
 
@@ -32,10 +39,14 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = repository.findById(catId)
                 .orElseThrow(() -> new DataNotFoundException("Category with id =" + catId + " not found"));
         category.setName(newCategoryDto.getName());
-        return mapper.toDtoCategory(repository.save(category));
+        eventPublisher.publishEvent(new CatalogChange(Catalog.CATEGORIES));
+        CategoryDto categoryDto = mapper.toDtoCategory(repository.save(category));
+        compilationSnapshots.refreshByCategory(catId);
+        return categoryDto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CategoryDto getCategory(int catId) {
         Category category = repository.findById(catId)
                 .orElseThrow(() -> new DataNotFoundException("Category with id =" + catId + " not found"));
@@ -43,6 +54,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CategoryDto> getCategories(int from, int size) {
         return mapper.toDtoCategories(repository.findAll(new OffsetBasedPageRequest(from, size)).toList());
     }
@@ -56,5 +68,6 @@ public class CategoryServiceImpl implements CategoryService {
             throw new CategoryNotEmptyException("The category is not empty");
         }
         repository.deleteById(catId);
+        eventPublisher.publishEvent(new CatalogChange(Catalog.CATEGORIES));
     }
 }
\ No newline at end of file
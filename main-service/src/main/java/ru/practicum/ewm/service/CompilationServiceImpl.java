@@ -1,8 +1,12 @@
 package ru.practicum.ewm.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.cache.Catalog;
+import ru.practicum.ewm.cache.CatalogChange;
+import ru.practicum.ewm.cache.CompilationSnapshots;
 import ru.practicum.ewm.client.stats.StatsClient;
 import ru.practicum.ewm.dto.*;
 import ru.practicum.ewm.dto.stats.ViewStats;
@@ -10,24 +14,36 @@ import ru.practicum.ewm.exception.DataNotFoundException;
 import ru.practicum.ewm.mapper.EventAndCompilationMapper;
 import ru.practicum.ewm.model.Compilation;
 import ru.practicum.ewm.model.Event;
+import ru.practicum.ewm.outbox.ChangeAggregate;
+import ru.practicum.ewm.outbox.ChangeOutbox;
+import ru.practicum.ewm.outbox.ChangeType;
 import ru.practicum.ewm.repository.JpaCompilationRepository;
+import ru.practicum.ewm.repository.JpaCompilationSnapshotRepository;
 import ru.practicum.ewm.repository.JpaEventsRepository;
+import ru.practicum.ewm.repository.view.EventCountersView;
 import ru.practicum.ewm.utils.OffsetBasedPageRequest;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CompilationServiceImpl implements CompilationService {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final JpaEventsRepository eventsRepository;
     private final EventAndCompilationMapper mapper;
     private final JpaCompilationRepository compilationRepository;
+    private final JpaCompilationSnapshotRepository snapshotRepository;
+    private final CompilationSnapshots snapshots;
     private final StatsClient statsClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeOutbox changeOutbox;
 
     @Override
     @Transactional
@@ -35,47 +51,46 @@ public class CompilationServiceImpl implements CompilationService {
         Compilation compilation = mapper.toModelCompilation(newCompilationDto);
         compilation.setEvents(eventsRepository.findAllById(compilation.getEvents().stream()
                 .map(Event::getId).collect(Collectors.toList())));
-        return mapper.toDtoCompilation(compilationRepository.save(compilation));
+        eventPublisher.publishEvent(new CatalogChange(Catalog.COMPILATIONS));
+        Compilation saved = compilationRepository.save(compilation);
+        changeOutbox.record(ChangeAggregate.COMPILATION, saved.getId(), null, ChangeType.CREATED);
+        return snapshots.save(saved);
     }
 
     @Override
     @Transactional
     public CompilationDto updateCompilation(int compId, UpdateCompilationRequest updateCompilationRequest) {
-        return mapper.toDtoCompilation(compilationRepository.save(changeCompilation(updateCompilationRequest,
+        eventPublisher.publishEvent(new CatalogChange(Catalog.COMPILATIONS));
+        changeOutbox.record(ChangeAggregate.COMPILATION, compId, null, ChangeType.UPDATED);
+        return snapshots.save(compilationRepository.save(changeCompilation(updateCompilationRequest,
                 compilationRepository.findById(compId)
                         .orElseThrow(() ->
                                 new DataNotFoundException("Compilation with id = " + compId + " not found")))));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CompilationDto getCompilation(int compId) {
-        CompilationDto compilationDto = mapper.toDtoCompilation(compilationRepository.findById(compId)
+        CompilationDto compilationDto = snapshots.read(snapshotRepository.findSnapshotById(compId)
                 .orElseThrow(() -> new DataNotFoundException("Compilation with id = " + compId + " not found")));
-        List<String> uris = getUris(compilationDto.getEvents());
-        if (!uris.isEmpty()) {
-            compilationDto.setEvents(getViews(uris, compilationDto.getEvents()));
-        }
+        setCounters(List.of(compilationDto));
         return compilationDto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CompilationDto> getCompilations(Boolean pinned, int from, int size) {
-        List<CompilationDto> compilationsDto;
+        List<String> snapshotsJson;
         if (pinned == null) {
-            compilationsDto = mapper.toDtoCompilations(compilationRepository.findAll(
-                    new OffsetBasedPageRequest(from, size)).toList());
+            snapshotsJson = snapshotRepository.findSnapshots(new OffsetBasedPageRequest(from, size));
         } else {
-            compilationsDto = mapper.toDtoCompilations(compilationRepository.findByPinned(pinned,
-                    new OffsetBasedPageRequest(from, size)));
+            snapshotsJson = snapshotRepository.findSnapshotsByPinned(pinned, new OffsetBasedPageRequest(from, size));
         }
-        return compilationsDto.stream()
-                .peek(c -> {
-                    List<String> uris = getUris(c.getEvents());
-                    if (!uris.isEmpty()) {
-                        c.setEvents(getViews(uris, c.getEvents()));
-                    }
-                })
+        List<CompilationDto> compilationsDto = snapshotsJson.stream()
+                .map(snapshots::read)
                 .collect(Collectors.toList());
+        setCounters(compilationsDto);
+        return compilationsDto;
     }
 
     @Override
@@ -85,6 +100,8 @@ public class CompilationServiceImpl implements CompilationService {
             throw new DataNotFoundException("Compilation with id = " + compId + " not found");
         }
         compilationRepository.deleteById(compId);
+        changeOutbox.record(ChangeAggregate.COMPILATION, compId, null, ChangeType.DELETED);
+        eventPublisher.publishEvent(new CatalogChange(Catalog.COMPILATIONS));
     }
 
     private Compilation changeCompilation(UpdateCompilationRequest request, Compilation compilation) {
@@ -100,23 +117,33 @@ public class CompilationServiceImpl implements CompilationService {
         return compilation;
     }
 
-    private List<EventShortDto> getViews(List<String> uri, List<EventShortDto> events) {
+    /**
+     * Overlays the fields a snapshot does not keep current: request and comment counters, and views.
+     */
+    private void setCounters(List<CompilationDto> compilations) {
+        List<EventShortDto> events = compilations.stream()
+                .flatMap(c -> c.getEvents().stream())
+                .collect(Collectors.toList());
+        if (events.isEmpty()) {
+            return;
+        }
+        Set<Integer> ids = events.stream().map(EventShortDto::getId).collect(Collectors.toSet());
+        Map<Integer, EventCountersView> counters = eventsRepository.findCountersByIdIn(ids).stream()
+                .collect(Collectors.toMap(EventCountersView::getId, Function.identity()));
         Map<String, Integer> views = statsClient.getStats(LocalDateTime.now().minusYears(1000)
-                                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                        uri, true).stream()
+                                .format(FORMATTER),
+                        LocalDateTime.now().format(FORMATTER),
+                        ids.stream().map(id -> "/events/" + id).collect(Collectors.toList()), true).stream()
                 .collect(Collectors.toMap(ViewStats::getUri, ViewStats::getHits));
-        List<EventShortDto> results = new ArrayList<>();
         for (EventShortDto event : events) {
+            EventCountersView counter = counters.get(event.getId());
+            if (counter != null) {
+                event.setConfirmedRequests(counter.getConfirmedRequests());
+                event.setCommentsCount(counter.getCommentsCount());
+                event.setLastCommentAt(counter.getLastCommentAt() == null ? null
+                        : counter.getLastCommentAt().format(FORMATTER));
+            }
             event.setViews(views.getOrDefault("/events/" + event.getId(), 0));
-            results.add(event);
         }
-        return results;
-    }
-
-    private List<String> getUris(List<EventShortDto> events) {
-        return events.stream()
-                .map(i -> "/events/" + i.getId())
-                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
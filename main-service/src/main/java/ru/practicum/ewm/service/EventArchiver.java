@@ -0,0 +1,73 @@
+package ru.practicum.ewm.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.outbox.ChangeOutbox;
+import ru.practicum.ewm.outbox.ChangeType;
+import ru.practicum.ewm.repository.JpaEventsRepository;
+import ru.practicum.ewm.utils.OffsetBasedPageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves published events whose date has passed to the ARCHIVED state, so live searches over PUBLISHED events
+ * only scan upcoming ones. Archived events stay readable by id and through the archived event search.
+ * <p>
+ * Every batch is a short transaction of its own, and the update only touches rows that are still PUBLISHED, so
+ * the sweep never holds many row locks and is safe to run on several nodes at once.
+ */
+@Slf4j
+@Component
+public class EventArchiver {
+    private final JpaEventsRepository eventsRepository;
+    private final ChangeOutbox changeOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration after;
+    private final int batchSize;
+
+    public EventArchiver(JpaEventsRepository eventsRepository,
+                         ChangeOutbox changeOutbox,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${ewm.archive.enabled:true}") boolean enabled,
+                         @Value("${ewm.archive.after:1d}") Duration after,
+                         @Value("${ewm.archive.batch-size:500}") int batchSize) {
+        this.eventsRepository = eventsRepository;
+        this.changeOutbox = changeOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.after = after;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.archive.interval-ms:600000}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(after);
+        int archived = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<Integer> ids = eventsRepository.findIdsByStatePublishedAndEventDateBefore(before,
+                        new OffsetBasedPageRequest(0, batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                changeOutbox.recordEvents(ids, ChangeType.UPDATED);
+                return eventsRepository.archivePublishedByIdIn(ids, before);
+            });
+            archived += batch;
+        } while (batch == batchSize);
+        if (archived > 0) {
+            log.info("Archived {} events that took place before {}", archived, before);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.ewm.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.cache.CompilationSnapshots;
+import ru.practicum.ewm.outbox.ChangeOutbox;
+import ru.practicum.ewm.outbox.ChangeType;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of the partitioned events table: creates the partitions from the current month to
+ * months-ahead months after it, and detaches partitions older than the retention.
+ * <p>
+ * Rows outside the maintained months are stored in events_default. When a partition is created for a month that
+ * already has rows there, they are moved into the new table before it is attached, so the default partition stays
+ * small and range queries over maintained months can prune it.
+ * <p>
+ * Detaching a partition removes its events from the application: their requests, comments, compilation and zone
+ * links are deleted in the same transaction and they are published as deleted. The detached table is left in
+ * place as a standalone copy of the event rows for export and is never read again.
+ * <p>
+ * Every change holds a transaction-level advisory lock and re-reads the attached partitions under it, so nodes
+ * starting or running the schedule at the same time do not create or detach a partition twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "ewm.events.partitions.enabled", havingValue = "true")
+public class EventPartitionMaintainer implements SmartInitializingSingleton {
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("'events_p'yyyy_MM");
+    private static final Pattern PARTITION = Pattern.compile("events_p(\\d{4})_(\\d{2})");
+    private static final long LOCK_KEY = 0x65776d5f70617274L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CompilationSnapshots compilationSnapshots;
+    private final ChangeOutbox changeOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public EventPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                    CompilationSnapshots compilationSnapshots,
+                                    ChangeOutbox changeOutbox,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${ewm.events.partitions.months-ahead:3}") int monthsAhead,
+                                    @Value("${ewm.events.partitions.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.compilationSnapshots = compilationSnapshots;
+        this.changeOutbox = changeOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${ewm.events.partitions.cron:0 30 3 * * *}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        YearMonth last = current.plusMonths(monthsAhead);
+        YearMonth oldest = retentionMonths > 0 ? current.minusMonths(retentionMonths) : null;
+        Set<YearMonth> attached = attachedPartitions();
+
+        Set<YearMonth> missing = new TreeSet<>();
+        for (YearMonth month = current; !month.isAfter(last); month = month.plusMonths(1)) {
+            missing.add(month);
+        }
+        jdbcTemplate.queryForList("SELECT DISTINCT CAST(date_trunc('month', event_date) AS date) FROM events_default",
+                        LocalDate.class)
+                .stream()
+                .map(YearMonth::from)
+                .filter(month -> !month.isAfter(last) && (oldest == null || !month.isBefore(oldest)))
+                .forEach(missing::add);
+        missing.removeAll(attached);
+        missing.forEach(this::create);
+
+        if (oldest != null) {
+            attached.stream()
+                    .filter(month -> month.isBefore(oldest))
+                    .forEach(this::detach);
+        }
+    }
+
+    private Set<YearMonth> attachedPartitions() {
+        Set<YearMonth> months = new TreeSet<>();
+        jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = 'events'::regclass", String.class)
+                .forEach(name -> {
+                    Matcher matcher = PARTITION.matcher(name);
+                    if (matcher.matches()) {
+                        months.add(YearMonth.of(Integer.parseInt(matcher.group(1)),
+                                Integer.parseInt(matcher.group(2))));
+                    }
+                });
+        return months;
+    }
+
+    private void create(YearMonth month) {
+        String name = NAME.format(month);
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        Integer moved = transactionTemplate.execute(status -> {
+            if (!lock(month, true)) {
+                return null;
+            }
+            jdbcTemplate.execute("SET LOCAL ewm.partition_maintenance = 'on'");
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE events INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int rows = jdbcTemplate.update("WITH moved AS (DELETE FROM events_default WHERE event_date >= '" + from +
+                    "' AND event_date < '" + to + "' RETURNING *) INSERT INTO " + name + " SELECT * FROM moved");
+            jdbcTemplate.execute("ALTER TABLE events ATTACH PARTITION " + name +
+                    " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            return rows;
+        });
+        if (moved == null) {
+            return;
+        }
+        log.info("Created events partition {} for [{}, {}), moved {} rows from events_default", name, from, to,
+                moved);
+    }
+
+    private void detach(YearMonth month) {
+        String name = NAME.format(month);
+        List<Integer> removed = transactionTemplate.execute(status -> {
+            if (!lock(month, false)) {
+                return null;
+            }
+            List<Integer> eventIds = jdbcTemplate.queryForList("SELECT event_id FROM " + name, Integer.class);
+            List<Integer> compilationIds = jdbcTemplate.queryForList("SELECT DISTINCT compilation_id " +
+                    "FROM compilations_events WHERE event_id IN (SELECT event_id FROM " + name + ")", Integer.class);
+            jdbcTemplate.execute("ALTER TABLE events DETACH PARTITION " + name);
+            for (String table : new String[]{"requests", "comments", "compilations_events", "zones_events"}) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE event_id IN (SELECT event_id FROM " + name + ")");
+            }
+            compilationSnapshots.refresh(compilationIds);
+            changeOutbox.recordEvents(eventIds, ChangeType.DELETED);
+            return eventIds;
+        });
+        if (removed != null) {
+            log.info("Detached events partition {}, removed {} events from the application", name, removed.size());
+        }
+    }
+
+    /**
+     * Takes the maintenance lock for the rest of the transaction and tells whether the partition of the month is
+     * still in the expected state, i.e. another node has not created or detached it in the meantime.
+     */
+    private boolean lock(YearMonth month, boolean create) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", LOCK_KEY);
+        return attachedPartitions().contains(month) != create;
+    }
+}
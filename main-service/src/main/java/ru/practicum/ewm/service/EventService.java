@@ -1,11 +1,13 @@
 package ru.practicum.ewm.service;
 
 import ru.practicum.ewm.dto.*;
+import ru.practicum.ewm.dto.stats.EndpointHit;
 import ru.practicum.ewm.model.SortComment;
 import ru.practicum.ewm.model.State;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EventService {
     EventFullDto saveEvent(int userId, NewEventDto newEventDto);
@@ -14,26 +16,38 @@ public interface EventService {
 
     EventFullDto updateEventAdmin(int eventId, UpdateEventAdminRequest adminRequest);
 
+    List<EventModerationResult> moderateEvents(EventModerationRequest request);
+
     EventFullDto getEventToUser(int userId, int eventId);
 
-    EventFullDto getEvent(int eventId);
+    EventFullDto getEvent(int eventId, EndpointHit hit);
 
     List<EventShortDto> getShortEvents(int userId, int from, int size);
 
-    List<EventFullDto> getFullEvents(List<Integer> users, List<State> states, List<Integer> categories,
-                                     LocalDateTime rangeStart, LocalDateTime rangeEnd, int from, int size);
+    void getFullEvents(List<Integer> users, List<State> states, List<Integer> categories,
+                       LocalDateTime rangeStart, LocalDateTime rangeEnd, int from, int size,
+                       Consumer<EventFullDto> consumer);
 
     List<EventShortDto> getEventsByFilter(String text, List<Integer> categories, Boolean paid,
                                           LocalDateTime rangeStart, LocalDateTime rangeEnd,
                                           Boolean onlyAvailable, String sort, int from, int size);
 
+    List<EventShortDto> getArchivedEvents(List<Integer> categories, LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                          int from, int size);
+
+    List<EventShortDto> getEventsNear(double lat, double lon, double radius, int from, int size);
+
+    List<EventShortDto> getZoneEvents(int zoneId, int from, int size);
+
     CommentDto addComment(NewCommentDto newCommentDto, int eventId, int userId);
 
     CommentDto updateComment(NewCommentDto newCommentDto, int commentId, int userId);
 
-    List<CommentShortDto> getCommentToEvent(int eventId, int from, int size, SortComment sort);
+    void checkEventPublished(int eventId);
+
+    List<CommentShortDto> getCommentToEvent(int eventId, Integer after, int from, int size, SortComment sort);
 
-    List<CommentDto> getCommentToAuthor(int userId, int from, int size, SortComment sort);
+    List<CommentDto> getCommentToAuthor(int userId, Integer after, int from, int size, SortComment sort);
 
     void removeCommentToUser(int commentId, int userId);
 
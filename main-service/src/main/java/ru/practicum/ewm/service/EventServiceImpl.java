@@ -1,36 +1,65 @@
 package ru.practicum.ewm.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.cache.CompilationSnapshots;
 import ru.practicum.ewm.client.stats.StatsClient;
 import ru.practicum.ewm.dto.*;
+import ru.practicum.ewm.dto.stats.EndpointHit;
 import ru.practicum.ewm.dto.stats.ViewStats;
 import ru.practicum.ewm.exception.BadRequestException;
 import ru.practicum.ewm.exception.ConflictRequestException;
 import ru.practicum.ewm.exception.DataNotFoundException;
 import ru.practicum.ewm.mapper.EventAndCompilationMapper;
 import ru.practicum.ewm.model.*;
+import ru.practicum.ewm.outbox.ChangeAggregate;
+import ru.practicum.ewm.outbox.ChangeOutbox;
+import ru.practicum.ewm.outbox.ChangeType;
 import ru.practicum.ewm.repository.JpaCategoriesRepository;
 import ru.practicum.ewm.repository.JpaCommentRepository;
 import ru.practicum.ewm.repository.JpaEventsRepository;
 import ru.practicum.ewm.repository.JpaUsersRepository;
+import ru.practicum.ewm.repository.JpaZoneRepository;
+import ru.practicum.ewm.repository.view.CommentView;
+import ru.practicum.ewm.repository.view.EventFullView;
+import ru.practicum.ewm.repository.view.EventModerationView;
+import ru.practicum.ewm.repository.view.EventShortView;
+import ru.practicum.ewm.stream.CommentChange;
+import ru.practicum.ewm.stream.CommentFeed;
+import ru.practicum.ewm.stream.SeatChange;
+import ru.practicum.ewm.utils.GeoHash;
 import ru.practicum.ewm.utils.OffsetBasedPageRequest;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EventServiceImpl implements EventService {
+    private static final int STREAM_CHUNK_SIZE = 100;
+
     private final JpaEventsRepository repositoryEvent;
     private final JpaCategoriesRepository repositoryCategory;
     private final JpaUsersRepository repositoryUser;
     private final JpaCommentRepository repositoryComment;
+    private final JpaZoneRepository repositoryZone;
+    private final RequestQueue requestQueue;
     private final EventAndCompilationMapper mapper;
     private final StatsClient statsClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CompilationSnapshots compilationSnapshots;
+    private final ChangeOutbox changeOutbox;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional
@@ -46,7 +75,11 @@ public class EventServiceImpl implements EventService {
         }
         event.setInitiator(user);
         event.setCategory(category);
-        return mapper.toFullDtoEvent(repositoryEvent.save(event));
+        event.setGeohash(geohash(event.getLocation()));
+        event.setZones(zones(event.getLocation()));
+        Event saved = repositoryEvent.save(event);
+        changeOutbox.recordEvents(List.of(saved.getId()), ChangeType.CREATED);
+        return mapper.toFullDtoEvent(saved);
     }
 
     @Override
@@ -59,40 +92,123 @@ public class EventServiceImpl implements EventService {
                 updateEventUserRequest.getEventDate().isBefore(LocalDateTime.now().plusHours(2))) {
             throw new BadRequestException("Event date cannot be earlier than two hours later");
         }
-        if (event.getState() == State.PUBLISHED) {
+        if (event.getState() == State.PUBLISHED || event.getState() == State.ARCHIVED) {
             throw new ConflictRequestException("The event has already been published");
         }
-        return mapper.toFullDtoEvent(repositoryEvent.save(changeEventByUser(event, updateEventUserRequest)));
+        EventFullDto eventDto = mapper.toFullDtoEvent(repositoryEvent.save(changeEventByUser(event,
+                updateEventUserRequest)));
+        compilationSnapshots.refreshByEvent(eventId);
+        changeOutbox.recordEvents(List.of(eventId), ChangeType.UPDATED);
+        return eventDto;
     }
 
     @Override
     @Transactional
     public EventFullDto updateEventAdmin(int eventId, UpdateEventAdminRequest updateEventAdminRequest) {
+        repositoryEvent.lockById(eventId);
         Event event = repositoryEvent.findById(eventId)
                 .orElseThrow(() -> new DataNotFoundException("Event with id = " + eventId + " not found"));
-        return mapper.toFullDtoEvent(repositoryEvent.save(changeEventByAdmin(event, updateEventAdminRequest)));
+        EventFullDto eventDto = mapper.toFullDtoEvent(repositoryEvent.save(changeEventByAdmin(event,
+                updateEventAdminRequest)));
+        compilationSnapshots.refreshByEvent(eventId);
+        changeOutbox.recordEvents(List.of(eventId), ChangeType.UPDATED);
+        return eventDto;
+    }
+
+    /**
+     * Applies the state actions of many events at once: the rows are locked in id order, the transitions are
+     * checked against the same rules as {@link #updateEventAdmin}, and the accepted ones are written with one
+     * update per target state. Rejected actions are reported per event and do not fail the others.
+     */
+    @Override
+    @Transactional
+    public List<EventModerationResult> moderateEvents(EventModerationRequest request) {
+        Set<Integer> ids = request.getEvents().stream()
+                .map(EventModerationDto::getEventId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        repositoryEvent.lockByIdIn(ids);
+        Map<Integer, EventModerationView> events = repositoryEvent.findModerationByIdIn(ids).stream()
+                .collect(Collectors.toMap(EventModerationView::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, State> moderated = new HashMap<>();
+        List<Integer> published = new ArrayList<>();
+        List<Integer> canceled = new ArrayList<>();
+        List<EventModerationResult> results = new ArrayList<>();
+        for (EventModerationDto moderation : request.getEvents()) {
+            int eventId = moderation.getEventId();
+            EventModerationView event = events.get(eventId);
+            State state = event == null ? null : moderated.getOrDefault(eventId, event.getState());
+            String error = null;
+            if (event == null) {
+                error = "Event with id = " + eventId + " not found";
+            } else if (moderated.containsKey(eventId)) {
+                error = "Event with id = " + eventId + " is moderated more than once";
+            } else if (moderation.getStateAction() == StateActionAdmin.PUBLISH_EVENT) {
+                if (state != State.PENDING) {
+                    error = "Event should be in pending state";
+                } else if (event.getEventDate().isBefore(now.plusHours(1))) {
+                    error = "Event date should be no earlier than one hour after publication";
+                } else {
+                    published.add(eventId);
+                    state = State.PUBLISHED;
+                }
+            } else {
+                if (state == State.PUBLISHED || state == State.ARCHIVED) {
+                    error = "Event should be in not published state";
+                } else {
+                    canceled.add(eventId);
+                    state = State.CANCELED;
+                }
+            }
+            if (event != null) {
+                moderated.putIfAbsent(eventId, state);
+            }
+            results.add(new EventModerationResult(eventId, moderation.getStateAction(), error == null, state, error));
+        }
+        if (!published.isEmpty()) {
+            repositoryEvent.publishPendingByIdIn(published, now);
+        }
+        if (!canceled.isEmpty()) {
+            repositoryEvent.cancelNotPublishedByIdIn(canceled);
+        }
+        changeOutbox.recordEvents(moderated.keySet().stream()
+                .filter(id -> moderated.get(id) != events.get(id).getState())
+                .sorted()
+                .collect(Collectors.toList()), ChangeType.UPDATED);
+        return results;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public EventFullDto getEventToUser(int userId, int eventId) {
-        repositoryUser.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("User with id =" + userId + " not found"));
-        Event event = repositoryEvent.findById(eventId)
+        Optional<Event> foundEvent = repositoryEvent.findById(eventId);
+        CompletableFuture<List<ViewStats>> stats = foundEvent
+                .filter(event -> event.getState() == State.PUBLISHED || event.getState() == State.ARCHIVED)
+                .map(event -> statsClient.getStatsAsync(event.getPublishedOn().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
+                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
+                        List.of("/events/" + eventId), true))
+                .orElse(null);
+        if (repositoryUser.findById(userId).isEmpty()) {
+            throw new DataNotFoundException("User with id =" + userId + " not found");
+        }
+        Event event = foundEvent
                 .orElseThrow(() -> new DataNotFoundException("Event with id =" + eventId + " not found"));
-        if (event.getState() == State.PUBLISHED) {
-            List<ViewStats> stats = statsClient.getStats(event.getPublishedOn().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                    List.of("/events/" + eventId), true);
-            if (!stats.isEmpty()) {
-                event.setViews(stats.get(0).getHits());
+        if (stats != null) {
+            List<ViewStats> views = await(stats);
+            if (!views.isEmpty()) {
+                event.setViews(views.get(0).getHits());
             }
         }
         return mapper.toFullDtoEvent(event);
     }
 
     @Override
-    public EventFullDto getEvent(int eventId) {
-        Event event = repositoryEvent.findByIdAndState(eventId)
+    @Transactional(readOnly = true)
+    public EventFullDto getEvent(int eventId, EndpointHit hit) {
+        CompletableFuture<Void> hitSaved = statsClient.saveHitAsync(hit);
+        Optional<Event> foundEvent = repositoryEvent.findByIdAndState(eventId);
+        await(hitSaved);
+        Event event = foundEvent
                 .orElseThrow(() -> new DataNotFoundException("Event with id =" + eventId
                         + " and PUBLISHED not found"));
         List<ViewStats> stats = statsClient.getStats(event.getPublishedOn().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
@@ -105,52 +221,74 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EventShortDto> getShortEvents(int userId, int from, int size) {
         repositoryUser.findById(userId)
                 .orElseThrow(() -> new DataNotFoundException("User with id = " + userId + " not found"));
-        List<Event> events = repositoryEvent.findByInitiatorId(userId, new OffsetBasedPageRequest(from, size));
-        List<String> uri = getUris(events);
-        if (!uri.isEmpty()) {
-            events = getViews(uri, events);
-        }
-        return mapper.toDtoShortEvents(events);
+        List<EventShortView> events = repositoryEvent.findByInitiatorId(userId,
+                new OffsetBasedPageRequest(from, size));
+        setViews(events);
+        return mapper.toDtoShortEventViews(events);
     }
 
     @Override
-    public List<EventFullDto> getFullEvents(List<Integer> users, List<State> states, List<Integer> categories,
-                                            LocalDateTime rangeStart, LocalDateTime rangeEnd, int from, int size) {
-        if (states == null) {
-            states = List.of(State.PENDING, State.CANCELED, State.PUBLISHED);
-        }
-        if (rangeStart == null) {
-            rangeStart = LocalDateTime.of(0, 1, 1, 0, 0, 0);
-        }
-        if (rangeEnd == null) {
-            rangeEnd = LocalDateTime.now().plusYears(10000);
+    public void getFullEvents(List<Integer> users, List<State> states, List<Integer> categories,
+                              LocalDateTime rangeStart, LocalDateTime rangeEnd, int from, int size,
+                              Consumer<EventFullDto> consumer) {
+        List<State> stateIn = states == null ? List.of(State.values()) : states;
+        LocalDateTime start = rangeStart == null ? LocalDateTime.of(0, 1, 1, 0, 0, 0) : rangeStart;
+        LocalDateTime end = rangeEnd == null ? LocalDateTime.now().plusYears(10000) : rangeEnd;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        for (int offset = 0; offset < size; offset += STREAM_CHUNK_SIZE) {
+            int limit = Math.min(STREAM_CHUNK_SIZE, size - offset);
+            OffsetBasedPageRequest page = new OffsetBasedPageRequest(from + offset, limit);
+            Map<Integer, Set<CommentShortDto>> comments = new HashMap<>();
+            List<EventFullView> events = transaction.execute(status -> {
+                List<EventFullView> found = findFullEvents(users, stateIn, categories, start, end, page);
+                if (!found.isEmpty()) {
+                    repositoryComment.findViewsByEventIdIn(found.stream()
+                                    .map(EventFullView::getId)
+                                    .collect(Collectors.toList()))
+                            .forEach(c -> comments.computeIfAbsent(c.getEventId(), id -> new HashSet<>())
+                                    .add(mapper.toCommentShortDto(c)));
+                }
+                return found;
+            });
+            if (events.isEmpty()) {
+                return;
+            }
+            setViews(events);
+            for (EventFullView view : events) {
+                EventFullDto dto = mapper.toFullDtoEvent(view);
+                dto.setComments(comments.getOrDefault(view.getId(), new HashSet<>()));
+                consumer.accept(dto);
+            }
+            if (events.size() < limit) {
+                return;
+            }
         }
-        List<Event> events;
+    }
+
+    private List<EventFullView> findFullEvents(List<Integer> users, List<State> states, List<Integer> categories,
+                                               LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                               OffsetBasedPageRequest page) {
         if (users == null && categories == null) {
-            events = repositoryEvent.findByStateInAndEventDateAfterAndEventDateBefore(
-                    states, rangeStart, rangeEnd, new OffsetBasedPageRequest(from, size));
+            return repositoryEvent.findByStateInAndEventDateAfterAndEventDateBefore(
+                    states, rangeStart, rangeEnd, page);
         } else if (users == null) {
-            events = repositoryEvent.findByStateInAndCategoryIdInAndEventDateAfterAndEventDateBefore(states,
-                    categories, rangeStart, rangeEnd, new OffsetBasedPageRequest(from, size));
+            return repositoryEvent.findByStateInAndCategoryIdInAndEventDateAfterAndEventDateBefore(states,
+                    categories, rangeStart, rangeEnd, page);
         } else if (categories == null) {
-            events = repositoryEvent.findByInitiatorIdInAndStateInAndEventDateAfterAndEventDateBefore(users,
-                    states, rangeStart, rangeEnd, new OffsetBasedPageRequest(from, size));
-        } else {
-            events = repositoryEvent
-                    .findByInitiatorIdInAndStateInAndCategoryIdInAndEventDateAfterAndEventDateBefore(users, states,
-                            categories, rangeStart, rangeEnd, new OffsetBasedPageRequest(from, size));
+            return repositoryEvent.findByInitiatorIdInAndStateInAndEventDateAfterAndEventDateBefore(users,
+                    states, rangeStart, rangeEnd, page);
         }
-        List<String> uri = getUris(events);
-        if (!uri.isEmpty()) {
-            events = getViews(uri, events);
-        }
-        return mapper.toDtoFullEvents(events);
+        return repositoryEvent.findByInitiatorIdInAndStateInAndCategoryIdInAndEventDateAfterAndEventDateBefore(users,
+                states, categories, rangeStart, rangeEnd, page);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EventShortDto> getEventsByFilter(String text, List<Integer> categories, Boolean paid,
                                                  LocalDateTime rangeStart, LocalDateTime rangeEnd,
                                                  Boolean onlyAvailable, String sort, int from, int size) {
@@ -163,7 +301,7 @@ public class EventServiceImpl implements EventService {
         if (!rangeEnd.isAfter(rangeStart)) {
             throw new BadRequestException("Range end must be after range start");
         }
-        List<Event> events;
+        List<EventShortView> events;
         if (paid == null) {
             if (text == null && categories == null) {
                 events = repositoryEvent.findByStatePublishedAndEventDateAfterAndEventDateBefore(rangeStart,
@@ -198,19 +336,15 @@ public class EventServiceImpl implements EventService {
         }
         if (onlyAvailable) {
             events = events.stream()
-                    .filter(event -> event.getParticipantLimit() >= event.getRequests().stream().filter(r ->
-                            r.getStatus() == Status.CONFIRMED).count())
+                    .filter(event -> event.getParticipantLimit() >= event.getConfirmedRequests())
                     .collect(Collectors.toList());
         }
-        List<String> uri = getUris(events);
-        if (!uri.isEmpty()) {
-            events = getViews(uri, events);
-        }
+        setViews(events);
         if (sort != null) {
             switch (sort) {
                 case "VIEWS":
                     events = events.stream()
-                            .sorted(Comparator.comparingInt(Event::getViews))
+                            .sorted(Comparator.comparingInt(EventShortView::getViews))
                             .collect(Collectors.toList());
                     break;
                 case "EVENT_DATE":
@@ -220,13 +354,101 @@ public class EventServiceImpl implements EventService {
                     break;
             }
         }
-        return mapper.toDtoShortEvents(events).stream()
+        return mapper.toDtoShortEventViews(events).stream()
+                .skip(from)
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EventShortDto> getArchivedEvents(List<Integer> categories, LocalDateTime rangeStart,
+                                                 LocalDateTime rangeEnd, int from, int size) {
+        if (rangeStart == null) {
+            rangeStart = LocalDateTime.of(0, 1, 1, 0, 0, 0);
+        }
+        if (rangeEnd == null) {
+            rangeEnd = LocalDateTime.now();
+        }
+        List<EventShortView> events;
+        if (categories == null) {
+            events = repositoryEvent.findByStateArchivedAndEventDateAfterAndEventDateBefore(rangeStart, rangeEnd,
+                    new OffsetBasedPageRequest(from, size));
+        } else {
+            events = repositoryEvent.findByStateArchivedAndCategoryIdInAndEventDateAfterAndEventDateBefore(
+                    categories, rangeStart, rangeEnd, new OffsetBasedPageRequest(from, size));
+        }
+        setViews(events);
+        return mapper.toDtoShortEventViews(events);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EventShortDto> getEventsNear(double lat, double lon, double radius, int from, int size) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new BadRequestException("Coordinates out of range: lat = " + lat + ", lon = " + lon);
+        }
+        if (radius <= 0) {
+            throw new BadRequestException("Radius must be positive");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, EventShortView> found = new HashMap<>();
+        for (String cell : GeoHash.cover(lat, lon, radius)) {
+            repositoryEvent.findByStatePublishedAndGeohashBetweenAndEventDateAfter(GeoHash.lowerBound(cell),
+                            GeoHash.upperBound(cell), now)
+                    .forEach(event -> found.put(event.getId(), event));
+        }
+        Map<Integer, Double> distances = new HashMap<>();
+        List<EventShortView> events = found.values().stream()
+                .filter(event -> {
+                    double distance = GeoHash.distanceKm(lat, lon, event.getLat(), event.getLon());
+                    distances.put(event.getId(), distance);
+                    return distance <= radius;
+                })
+                .sorted(Comparator.comparingDouble((EventShortView event) -> distances.get(event.getId()))
+                        .thenComparing(EventShortView::getId))
                 .skip(from)
                 .limit(size)
                 .collect(Collectors.toList());
+        setViews(events);
+        return mapper.toDtoShortEventViews(events);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EventShortDto> getZoneEvents(int zoneId, int from, int size) {
+        if (!repositoryZone.existsById(zoneId)) {
+            throw new DataNotFoundException("Zone with id = " + zoneId + " not found");
+        }
+        List<EventShortView> events = repositoryEvent.findByStatePublishedAndZoneIdAndEventDateAfter(zoneId,
+                LocalDateTime.now(), new OffsetBasedPageRequest(from, size));
+        setViews(events);
+        return mapper.toDtoShortEventViews(events);
+    }
+
+    private Set<Zone> zones(Location location) {
+        repositoryZone.lockMembership();
+        return repositoryZone.findAll().stream()
+                .filter(zone -> zone.contains(location))
+                .collect(Collectors.toSet());
+    }
+
+    private String geohash(Location location) {
+        return GeoHash.encode(location.getLat(), location.getLon(), GeoHash.PRECISION);
     }
 
-    private int compareEventForDate(Event a, Event b) {
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private int compareEventForDate(EventShortView a, EventShortView b) {
         return a.getEventDate().compareTo(b.getEventDate());
     }
 
@@ -246,6 +468,9 @@ public class EventServiceImpl implements EventService {
     }
 
     private Event changeEventByAdmin(Event event, UpdateEventAdminRequest newEvent) {
+        if (event.getState() == State.ARCHIVED) {
+            throw new ConflictRequestException("Archived event cannot be changed");
+        }
         changeEvent(event, newEvent);
         if (event.getState() == State.PUBLISHED) {
             if (event.getEventDate().isBefore(event.getPublishedOn().plusHours(1))) {
@@ -296,9 +521,20 @@ public class EventServiceImpl implements EventService {
         if (newEvent.getLocation() != null) {
             event.getLocation().setLat(newEvent.getLocation().getLat());
             event.getLocation().setLon(newEvent.getLocation().getLon());
+            event.setGeohash(geohash(event.getLocation()));
+            event.setZones(zones(event.getLocation()));
         }
         if (newEvent.getParticipantLimit() != null) {
+            int previousLimit = event.getParticipantLimit();
             event.setParticipantLimit(newEvent.getParticipantLimit());
+            if (event.getState() == State.PUBLISHED && previousLimit != 0
+                    && (event.getParticipantLimit() == 0 || event.getParticipantLimit() > previousLimit)) {
+                event.setConfirmedRequests(event.getConfirmedRequests() + requestQueue.promote(event.getId(),
+                        event.getParticipantLimit(), event.getConfirmedRequests()));
+            }
+            if (event.getState() == State.PUBLISHED && previousLimit != event.getParticipantLimit()) {
+                eventPublisher.publishEvent(new SeatChange(event.getId()));
+            }
         }
         if (newEvent.getPaid() != null) {
             event.setPaid(newEvent.getPaid());
@@ -314,26 +550,22 @@ public class EventServiceImpl implements EventService {
         }
     }
 
-    private List<Event> getViews(List<String> uri, List<Event> events) {
+    private void setViews(List<? extends EventShortView> events) {
+        List<String> uris = events.stream()
+                .filter(i -> i.getState() == State.PUBLISHED || i.getState() == State.ARCHIVED)
+                .map(i -> "/events/" + i.getId())
+                .collect(Collectors.toList());
+        if (uris.isEmpty()) {
+            return;
+        }
         Map<String, Integer> views = statsClient.getStats(LocalDateTime.now().minusYears(1000)
                                 .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
                         LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
-                        uri, true).stream()
+                        uris, true).stream()
                 .collect(Collectors.toMap(ViewStats::getUri, ViewStats::getHits));
-        List<Event> results = new ArrayList<>();
-        for (Event event : events) {
+        for (EventShortView event : events) {
             event.setViews(views.getOrDefault("/events/" + event.getId(), 0));
-            results.add(event);
         }
-        return results;
-    }
-
-    private List<String> getUris(List<Event> events) {
-        return events.stream()
-                .filter(i -> i.getState() == State.PUBLISHED)
-                .sorted((o1, o2) -> o2.getPublishedOn().compareTo(o1.getPublishedOn()))
-                .map(i -> "/events/" + i.getId())
-                .collect(Collectors.toList());
     }
 
     @Override
@@ -343,13 +575,17 @@ public class EventServiceImpl implements EventService {
                 .orElseThrow(() -> new DataNotFoundException("User with id =" + userId + " not found"));
         Event event = repositoryEvent.findById(eventId)
                 .orElseThrow(() -> new DataNotFoundException("Event with id = " + eventId + " not found"));
-        if (event.getState() != State.PUBLISHED) {
+        if (event.getState() != State.PUBLISHED && event.getState() != State.ARCHIVED) {
             throw new ConflictRequestException("Event not published");
         }
         Comment comment = mapper.toModelComment(newCommentDto);
         comment.setEvent(event);
         comment.setAuthor(user);
-        return mapper.toCommentDto(repositoryComment.save(comment));
+        comment = repositoryComment.save(comment);
+        repositoryEvent.incrementCommentsCount(eventId, comment.getCreated());
+        changeOutbox.record(ChangeAggregate.COMMENT, comment.getId(), eventId, ChangeType.CREATED);
+        eventPublisher.publishEvent(new CommentChange(eventId, CommentFeed.ADDED, mapper.toCommentShortDto(comment)));
+        return mapper.toCommentDto(comment);
     }
 
     @Override
@@ -365,21 +601,55 @@ public class EventServiceImpl implements EventService {
                     "have passed since it was created.");
         }
         comment.setText(newCommentDto.getText());
-        return mapper.toCommentDto(repositoryComment.save(comment));
+        comment = repositoryComment.save(comment);
+        changeOutbox.record(ChangeAggregate.COMMENT, commentId, comment.getEvent().getId(), ChangeType.UPDATED);
+        eventPublisher.publishEvent(new CommentChange(comment.getEvent().getId(), CommentFeed.UPDATED,
+                mapper.toCommentShortDto(comment)));
+        return mapper.toCommentDto(comment);
     }
 
     @Override
-    public List<CommentShortDto> getCommentToEvent(int eventId, int from, int size, SortComment sort) {
-        repositoryEvent.findById(eventId)
-                .orElseThrow(() -> new DataNotFoundException("Event with id = " + eventId + " not found"));
+    @Transactional(readOnly = true)
+    public void checkEventPublished(int eventId) {
+        if (!repositoryEvent.existsByIdAndStateIn(eventId, List.of(State.PUBLISHED, State.ARCHIVED))) {
+            throw new DataNotFoundException("Event with id =" + eventId + " and PUBLISHED not found");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommentShortDto> getCommentToEvent(int eventId, Integer after, int from, int size,
+                                                   SortComment sort) {
+        if (!repositoryEvent.existsById(eventId)) {
+            throw new DataNotFoundException("Event with id = " + eventId + " not found");
+        }
+        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(after == null ? from : 0, size);
+        if (after != null) {
+            CommentView cursor = repositoryComment.findViewByIdAndEventId(after, eventId)
+                    .orElseThrow(() -> new BadRequestException("Comment with id = " + after
+                            + " not found for event with id = " + eventId));
+            List<CommentView> comments;
+            switch (sort) {
+                case DESCCREATEDDATA:
+                    comments = repositoryComment.findViewsByEventIdBefore(eventId, cursor.getCreated(), after,
+                            pageable);
+                    break;
+                case ASCCREATEDDATA:
+                    comments = repositoryComment.findViewsByEventIdAfter(eventId, cursor.getCreated(), after,
+                            pageable);
+                    break;
+                default:
+                    throw new BadRequestException("Type parameter not found");
+            }
+            return mapper.toCommentViewsShortDto(comments);
+        }
         List<Comment> comments;
-        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(from, size);
         switch (sort) {
             case DESCCREATEDDATA:
-                comments = repositoryComment.findByEvent_IdOrderByCreatedDesc(eventId, pageable);
+                comments = repositoryComment.findByEvent_IdOrderByCreatedDescIdDesc(eventId, pageable);
                 break;
             case ASCCREATEDDATA:
-                comments = repositoryComment.findByEvent_IdOrderByCreatedAsc(eventId, pageable);
+                comments = repositoryComment.findByEvent_IdOrderByCreatedAscIdAsc(eventId, pageable);
                 break;
             default:
                 throw new BadRequestException("Type parameter not found");
@@ -388,23 +658,52 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    public List<CommentDto> getCommentToAuthor(int userId, int from, int size, SortComment sort) {
-        repositoryUser.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("User with id = " + userId + " not found"));
+    @Transactional(readOnly = true)
+    public List<CommentDto> getCommentToAuthor(int userId, Integer after, int from, int size, SortComment sort) {
+        if (!repositoryUser.findById(userId).isPresent()) {
+            throw new DataNotFoundException("User with id = " + userId + " not found");
+        }
+        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(after == null ? from : 0, size);
+        if (after != null) {
+            CommentView cursor = repositoryComment.findViewByIdAndAuthorId(after, userId)
+                    .orElseThrow(() -> new BadRequestException("Comment with id = " + after
+                            + " not found for author with id = " + userId));
+            List<CommentView> comments;
+            switch (sort) {
+                case DESCCREATEDDATA:
+                    comments = repositoryComment.findViewsByAuthorIdBefore(userId, cursor.getCreated(), after,
+                            pageable);
+                    break;
+                case ASCCREATEDDATA:
+                    comments = repositoryComment.findViewsByAuthorIdAfter(userId, cursor.getCreated(), after,
+                            pageable);
+                    break;
+                case DESCEVENTID:
+                    comments = repositoryComment.findViewsByAuthorIdBeforeEvent(userId, cursor.getEventId(), after,
+                            pageable);
+                    break;
+                case ASCEVENTID:
+                    comments = repositoryComment.findViewsByAuthorIdAfterEvent(userId, cursor.getEventId(), after,
+                            pageable);
+                    break;
+                default:
+                    throw new BadRequestException("Type parameter not found");
+            }
+            return mapper.toCommentViewsDto(comments);
+        }
         List<Comment> comments;
-        OffsetBasedPageRequest pageable = new OffsetBasedPageRequest(from, size);
         switch (sort) {
             case DESCCREATEDDATA:
-                comments = repositoryComment.findByAuthor_IdOrderByCreatedDesc(userId, pageable);
+                comments = repositoryComment.findByAuthor_IdOrderByCreatedDescIdDesc(userId, pageable);
                 break;
             case ASCCREATEDDATA:
-                comments = repositoryComment.findByAuthor_IdOrderByCreatedAsc(userId, pageable);
+                comments = repositoryComment.findByAuthor_IdOrderByCreatedAscIdAsc(userId, pageable);
                 break;
             case DESCEVENTID:
-                comments = repositoryComment.findByAuthor_IdOrderByEventIdDesc(userId, pageable);
+                comments = repositoryComment.findByAuthor_IdOrderByEventIdDescIdDesc(userId, pageable);
                 break;
             case ASCEVENTID:
-                comments = repositoryComment.findByAuthor_IdOrderByEventIdAsc(userId, pageable);
+                comments = repositoryComment.findByAuthor_IdOrderByEventIdAscIdAsc(userId, pageable);
                 break;
             default:
                 throw new BadRequestException("Type parameter not found");
@@ -421,13 +720,17 @@ public class EventServiceImpl implements EventService {
             throw new ConflictRequestException("User with id = " + userId + " not author comment with id = " + commentId);
         }
         repositoryComment.deleteById(commentId);
+        repositoryEvent.decrementCommentsCount(comment.getEvent().getId());
+        changeOutbox.record(ChangeAggregate.COMMENT, commentId, comment.getEvent().getId(), ChangeType.DELETED);
     }
 
     @Override
     @Transactional
     public void removeCommentToAdmin(int commentId) {
-        repositoryComment.findById(commentId)
+        Comment comment = repositoryComment.findById(commentId)
                 .orElseThrow(() -> new DataNotFoundException("Comment with id = " + commentId + " not found"));
         repositoryComment.deleteById(commentId);
+        repositoryEvent.decrementCommentsCount(comment.getEvent().getId());
+        changeOutbox.record(ChangeAggregate.COMMENT, commentId, comment.getEvent().getId(), ChangeType.DELETED);
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package ru.practicum.ewm.service;
+
+import ru.practicum.ewm.dto.ImportErrorDto;
+import ru.practicum.ewm.dto.ImportSummaryDto;
+import ru.practicum.ewm.model.DataFormat;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface ImportService {
+    ImportSummaryDto importUsers(InputStream in, DataFormat format, Consumer<ImportErrorDto> errors);
+
+    ImportSummaryDto importCategories(InputStream in, DataFormat format, Consumer<ImportErrorDto> errors);
+
+    ImportSummaryDto importEvents(InputStream in, DataFormat format, Consumer<ImportErrorDto> errors);
+}
@@ -0,0 +1,294 @@
+package ru.practicum.ewm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.cache.Catalog;
+import ru.practicum.ewm.cache.CatalogChange;
+import ru.practicum.ewm.dto.*;
+import ru.practicum.ewm.model.DataFormat;
+import ru.practicum.ewm.model.Location;
+import ru.practicum.ewm.model.State;
+import ru.practicum.ewm.model.Zone;
+import ru.practicum.ewm.outbox.ChangeOutbox;
+import ru.practicum.ewm.outbox.ChangeType;
+import ru.practicum.ewm.repository.JpaCategoriesRepository;
+import ru.practicum.ewm.repository.JpaUsersRepository;
+import ru.practicum.ewm.repository.JpaZoneRepository;
+import ru.practicum.ewm.utils.GeoHash;
+import ru.practicum.ewm.utils.RowReader;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of users, categories and events.
+ * <p>
+ * Rows are parsed and validated one at a time and written in chunks: every chunk resolves its references and
+ * unique keys with one query per kind and is inserted through JDBC batches in its own transaction. Only the
+ * current chunk is held in memory, and a rejected row is reported without stopping the import.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportServiceImpl implements ImportService {
+    private static final int CHUNK_SIZE = 500;
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JpaUsersRepository usersRepository;
+    private final JpaCategoriesRepository categoriesRepository;
+    private final JpaZoneRepository zoneRepository;
+    private final ChangeOutbox changeOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Override
+    public ImportSummaryDto importUsers(InputStream in, DataFormat format, Consumer<ImportErrorDto> errors) {
+        return importRows(in, format, NewUserRequest.class, errors, (rows, reject) -> {
+            Set<String> taken = new HashSet<>(usersRepository.findEmailsByEmailIn(rows.stream()
+                    .map(row -> row.getValue().getEmail())
+                    .collect(Collectors.toSet())));
+            List<NewUserRequest> users = new ArrayList<>();
+            for (ImportRow<NewUserRequest> row : rows) {
+                if (!taken.add(row.getValue().getEmail())) {
+                    reject.accept(row, "email: " + row.getValue().getEmail() + " is already used");
+                } else {
+                    users.add(row.getValue());
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO users (email, name) VALUES (?, ?)", users, CHUNK_SIZE,
+                    (ps, user) -> {
+                        ps.setString(1, user.getEmail());
+                        ps.setString(2, user.getName());
+                    });
+        });
+    }
+
+    @Override
+    public ImportSummaryDto importCategories(InputStream in, DataFormat format, Consumer<ImportErrorDto> errors) {
+        return importRows(in, format, NewCategoryDto.class, errors, (rows, reject) -> {
+            Set<String> taken = new HashSet<>(categoriesRepository.findNamesByNameIn(rows.stream()
+                    .map(row -> row.getValue().getName())
+                    .collect(Collectors.toSet())));
+            List<NewCategoryDto> categories = new ArrayList<>();
+            for (ImportRow<NewCategoryDto> row : rows) {
+                if (!taken.add(row.getValue().getName())) {
+                    reject.accept(row, "name: " + row.getValue().getName() + " is already used");
+                } else {
+                    categories.add(row.getValue());
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO categories (name) VALUES (?)", categories, CHUNK_SIZE,
+                    (ps, category) -> ps.setString(1, category.getName()));
+            if (!categories.isEmpty()) {
+                eventPublisher.publishEvent(new CatalogChange(Catalog.CATEGORIES));
+            }
+        });
+    }
+
+    @Override
+    public ImportSummaryDto importEvents(InputStream in, DataFormat format, Consumer<ImportErrorDto> errors) {
+        List<Zone> zones = zoneRepository.findAll();
+        return importRows(in, format, ImportEventDto.class, errors, (rows, reject) -> {
+            Set<Integer> categories = new HashSet<>(categoriesRepository.findIdsByIdIn(rows.stream()
+                    .map(row -> row.getValue().getCategory())
+                    .collect(Collectors.toSet())));
+            Set<Integer> initiators = new HashSet<>(usersRepository.findIdsByIdIn(rows.stream()
+                    .map(row -> row.getValue().getInitiator())
+                    .collect(Collectors.toSet())));
+            LocalDateTime earliest = LocalDateTime.now().plusHours(2);
+            List<ImportRow<ImportEventDto>> events = new ArrayList<>();
+            List<LocalDateTime> eventDates = new ArrayList<>();
+            for (ImportRow<ImportEventDto> row : rows) {
+                ImportEventDto event = row.getValue();
+                LocalDateTime eventDate;
+                try {
+                    eventDate = LocalDateTime.parse(event.getEventDate(), FORMATTER);
+                } catch (DateTimeParseException e) {
+                    reject.accept(row, "eventDate: must match yyyy-MM-dd HH:mm:ss");
+                    continue;
+                }
+                if (eventDate.isBefore(earliest)) {
+                    reject.accept(row, "eventDate: cannot be earlier than two hours later");
+                } else if (event.getLocation().getLat() == null || event.getLocation().getLon() == null) {
+                    reject.accept(row, "location: lat and lon must not be null");
+                } else if (!categories.contains(event.getCategory())) {
+                    reject.accept(row, "category: category with id = " + event.getCategory() + " not found");
+                } else if (!initiators.contains(event.getInitiator())) {
+                    reject.accept(row, "initiator: user with id = " + event.getInitiator() + " not found");
+                } else {
+                    events.add(row);
+                    eventDates.add(eventDate);
+                }
+            }
+            if (!events.isEmpty()) {
+                insertEvents(events, eventDates, zones);
+            }
+        });
+    }
+
+    private void insertEvents(List<ImportRow<ImportEventDto>> events, List<LocalDateTime> eventDates,
+                              List<Zone> zones) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Integer> ids = jdbcTemplate.execute((ConnectionCallback<List<Integer>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO events (title, annotation, " +
+                    "description, category_id, initiator_id, created_on, event_date, location_lat, location_lon, " +
+                    "geohash, state, participant_limit, request_moderation, paid) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", new String[]{"event_id"})) {
+                for (int i = 0; i < events.size(); i++) {
+                    ImportEventDto event = events.get(i).getValue();
+                    Location location = event.getLocation();
+                    ps.setString(1, event.getTitle());
+                    ps.setString(2, event.getAnnotation());
+                    ps.setString(3, event.getDescription());
+                    ps.setInt(4, event.getCategory());
+                    ps.setInt(5, event.getInitiator());
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, Timestamp.valueOf(eventDates.get(i)));
+                    ps.setFloat(8, location.getLat());
+                    ps.setFloat(9, location.getLon());
+                    ps.setString(10, GeoHash.encode(location.getLat(), location.getLon(), GeoHash.PRECISION));
+                    ps.setInt(11, State.PENDING.ordinal());
+                    ps.setInt(12, event.getParticipantLimit() == null ? 0 : event.getParticipantLimit());
+                    ps.setBoolean(13, event.getRequestModeration() == null || event.getRequestModeration());
+                    ps.setBoolean(14, event.isPaid());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Integer> keys = new ArrayList<>(events.size());
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        keys.add(rs.getInt(1));
+                    }
+                }
+                return keys;
+            }
+        });
+        changeOutbox.recordEvents(ids, ChangeType.CREATED);
+        if (zones.isEmpty()) {
+            return;
+        }
+        List<int[]> zoneEvents = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            Location location = events.get(i).getValue().getLocation();
+            for (Zone zone : zones) {
+                if (zone.contains(location)) {
+                    zoneEvents.add(new int[]{zone.getId(), ids.get(i)});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO zones_events (zone_id, event_id) VALUES (?, ?)", zoneEvents,
+                CHUNK_SIZE, (ps, zoneEvent) -> {
+                    ps.setInt(1, zoneEvent[0]);
+                    ps.setInt(2, zoneEvent[1]);
+                });
+    }
+
+    private <T> ImportSummaryDto importRows(InputStream in, DataFormat format, Class<T> type,
+                                            Consumer<ImportErrorDto> errors, ChunkWriter<T> writer) {
+        ImportSummaryDto summary = new ImportSummaryDto();
+        try (RowReader reader = new RowReader(in, format, objectMapper)) {
+            List<ImportRow<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+            RowReader.Row row;
+            while ((row = reader.next()) != null) {
+                summary.setRows(summary.getRows() + 1);
+                ImportRow<T> parsed = parse(row, type, summary, errors);
+                if (parsed != null) {
+                    chunk.add(parsed);
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, writer, summary, errors);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, writer, summary, errors);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Imported {} of {} {} rows", summary.getImported(), summary.getRows(), type.getSimpleName());
+        return summary;
+    }
+
+    private <T> ImportRow<T> parse(RowReader.Row row, Class<T> type, ImportSummaryDto summary,
+                                   Consumer<ImportErrorDto> errors) {
+        List<String> messages;
+        if (row.getError() != null) {
+            messages = List.of(row.getError());
+        } else {
+            try {
+                T value = objectMapper.treeToValue(row.getValue(), type);
+                Set<ConstraintViolation<T>> violations = validator.validate(value);
+                if (violations.isEmpty()) {
+                    return new ImportRow<>(row.getNumber(), value);
+                }
+                messages = violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.toList());
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                messages = List.of(e instanceof JsonProcessingException
+                        ? ((JsonProcessingException) e).getOriginalMessage() : e.getMessage());
+            }
+        }
+        summary.setFailed(summary.getFailed() + 1);
+        errors.accept(new ImportErrorDto(row.getNumber(), messages));
+        return null;
+    }
+
+    private <T> void writeChunk(List<ImportRow<T>> chunk, ChunkWriter<T> writer, ImportSummaryDto summary,
+                                Consumer<ImportErrorDto> errors) {
+        Map<Integer, String> rejected = new TreeMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                rejected.clear();
+                writer.write(chunk, (row, message) -> rejected.put(row.getNumber(), message));
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Import chunk from row {} failed", chunk.get(0).getNumber(), e);
+            String message = "Chunk rejected: " + e.getMostSpecificCause().getMessage();
+            chunk.forEach(row -> rejected.putIfAbsent(row.getNumber(), message));
+        }
+        rejected.forEach((number, message) -> errors.accept(new ImportErrorDto(number, List.of(message))));
+        summary.setFailed(summary.getFailed() + rejected.size());
+        summary.setImported(summary.getImported() + chunk.size() - rejected.size());
+    }
+
+    private interface ChunkWriter<T> {
+        void write(List<ImportRow<T>> rows, BiConsumer<ImportRow<T>, String> reject);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ImportRow<T> {
+        private final int number;
+        private final T value;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.ewm.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.model.Status;
+import ru.practicum.ewm.repository.JpaRequestRepository;
+
+import java.util.List;
+
+/**
+ * Optional FIFO promotion of pending participation requests when seats of an event free up.
+ * <p>
+ * Callers hold the event row lock, pass the event's confirmed counter and add the returned number of promoted
+ * requests to it, so concurrent cancellations never promote the same seat twice.
+ */
+@Component
+public class RequestQueue {
+    private final JpaRequestRepository requestRepository;
+    private final boolean enabled;
+
+    public RequestQueue(JpaRequestRepository requestRepository,
+                        @Value("${ewm.requests.auto-promotion.enabled:false}") boolean enabled) {
+        this.requestRepository = requestRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int promote(int eventId, int participantLimit, int confirmedRequests) {
+        if (!enabled) {
+            return 0;
+        }
+        if (participantLimit == 0) {
+            return requestRepository.updatePendingStatusByEventId(eventId, Status.CONFIRMED);
+        }
+        int free = participantLimit - confirmedRequests;
+        if (free <= 0) {
+            return 0;
+        }
+        List<Integer> ids = requestRepository.findPendingIdsByEventId(eventId, PageRequest.of(0, free));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return requestRepository.updatePendingStatusByEventIdAndIdIn(eventId, ids, Status.CONFIRMED);
+    }
+}
@@ -3,17 +3,31 @@ package ru.practicum.ewm.service;
 import ru.practicum.ewm.dto.EventRequestStatusUpdateRequest;
 import ru.practicum.ewm.dto.EventRequestStatusUpdateResult;
 import ru.practicum.ewm.dto.ParticipationRequestDto;
+import ru.practicum.ewm.model.Status;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface RequestService {
     ParticipationRequestDto saveRequest(int userId, int eventId);
 
     ParticipationRequestDto cancelRequest(int userId, int requestId);
 
-    List<ParticipationRequestDto> getRequestsToUser(int userId);
+    void getRequestsToUser(int userId, Consumer<ParticipationRequestDto> consumer);
 
-    List<ParticipationRequestDto> getRequestsToEvent(int userId, int eventId);
+    void getRequestsToEvent(int userId, int eventId, Consumer<ParticipationRequestDto> consumer);
+
+    List<ParticipationRequestDto> getRequestsToUser(int userId, List<Status> statuses, int afterId, int size);
+
+    List<ParticipationRequestDto> getRequestsToEvent(int userId, int eventId, List<Status> statuses, int afterId,
+                                                     int size);
+
+    void checkRequester(int userId);
+
+    void checkInitiator(int userId, int eventId);
+
+    void exportRequestsToEvent(int userId, int eventId, List<Status> statuses,
+                               Consumer<ParticipationRequestDto> consumer);
 
     EventRequestStatusUpdateResult confirmedOrRejectedRequests(int userId, int eventId,
                                                                EventRequestStatusUpdateRequest request);
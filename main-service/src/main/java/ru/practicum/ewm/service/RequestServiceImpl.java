@@ -1,6 +1,7 @@
 package ru.practicum.ewm.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.ewm.dto.EventRequestStatusUpdateRequest;
@@ -11,12 +12,24 @@ import ru.practicum.ewm.exception.ConflictRequestException;
 import ru.practicum.ewm.exception.DataNotFoundException;
 import ru.practicum.ewm.mapper.RequestMapper;
 import ru.practicum.ewm.model.*;
+import ru.practicum.ewm.outbox.ChangeAggregate;
+import ru.practicum.ewm.outbox.ChangeOutbox;
+import ru.practicum.ewm.outbox.ChangeType;
 import ru.practicum.ewm.repository.JpaEventsRepository;
 import ru.practicum.ewm.repository.JpaRequestRepository;
 import ru.practicum.ewm.repository.JpaUsersRepository;
+import ru.practicum.ewm.repository.view.EventLimitView;
+import ru.practicum.ewm.repository.view.RequestView;
+import ru.practicum.ewm.stream.SeatChange;
+import ru.practicum.ewm.utils.OffsetBasedPageRequest;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -25,12 +38,16 @@ public class RequestServiceImpl implements RequestService {
     private final JpaEventsRepository eventsRepository;
     private final JpaUsersRepository usersRepository;
     private final RequestMapper mapper;
+    private final RequestQueue requestQueue;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeOutbox changeOutbox;
 
     @Override
     @Transactional
     public ParticipationRequestDto saveRequest(int userId, int eventId) {
         User user = usersRepository.findById(userId)
                 .orElseThrow(() -> new DataNotFoundException("User with id =" + userId + " not found"));
+        eventsRepository.lockById(eventId);
         Event event = eventsRepository.findById(eventId)
                 .orElseThrow(() -> new DataNotFoundException("Event with id =" + eventId + " not found"));
         if (event.getState() != State.PUBLISHED) {
@@ -42,9 +59,7 @@ public class RequestServiceImpl implements RequestService {
         if (!requestRepository.findByRequesterIdAndEventId(userId, eventId).isEmpty()) {
             throw new ConflictRequestException("User with id = " + userId + " has a request to participate to event");
         }
-        if (event.getParticipantLimit() != 0 && event.getRequests().stream()
-                .filter(r -> r.getStatus() == Status.CONFIRMED)
-                .collect(Collectors.toSet()).size() >= event.getParticipantLimit()) {
+        if (event.getParticipantLimit() != 0 && event.getConfirmedRequests() >= event.getParticipantLimit()) {
             throw new ConflictRequestException("Event with id = " + eventId
                     + " has reached the maximum number of participants");
         }
@@ -52,39 +67,94 @@ public class RequestServiceImpl implements RequestService {
         if (!event.getRequestModeration() || event.getParticipantLimit() == 0) {
             request.setStatus(Status.CONFIRMED);
         }
-        return mapper.toRequestDto(requestRepository.save(request));
+        request = requestRepository.saveAndFlush(request);
+        changeOutbox.record(ChangeAggregate.REQUEST, request.getId(), eventId, ChangeType.CREATED);
+        if (request.getStatus() == Status.CONFIRMED) {
+            eventsRepository.addConfirmedRequests(eventId, 1);
+            eventPublisher.publishEvent(new SeatChange(eventId));
+        }
+        return mapper.toRequestDto(request);
     }
 
     @Override
     @Transactional
     public ParticipationRequestDto cancelRequest(int userId, int requestId) {
+        int eventId = requestRepository.findEventIdByIdAndRequesterId(requestId, userId)
+                .orElseThrow(() -> new DataNotFoundException("Request with id = " + requestId + "for user = " + userId
+                        + " not found"));
+        eventsRepository.lockById(eventId);
         Request request = requestRepository.findByIdAndRequesterId(requestId, userId)
                 .orElseThrow(() -> new DataNotFoundException("Request with id = " + requestId + "for user = " + userId
                         + " not found"));
+        boolean confirmed = request.getStatus() == Status.CONFIRMED;
         request.setStatus(Status.CANCELED);
+        changeOutbox.record(ChangeAggregate.REQUEST, requestId, eventId, ChangeType.UPDATED);
+        if (confirmed) {
+            eventsRepository.addConfirmedRequests(eventId, -1);
+            eventPublisher.publishEvent(new SeatChange(eventId));
+        }
+        if (confirmed && requestQueue.isEnabled()) {
+            eventsRepository.findLimitById(eventId)
+                    .map(event -> requestQueue.promote(eventId, event.getParticipantLimit(),
+                            event.getConfirmedRequests()))
+                    .filter(promoted -> promoted > 0)
+                    .ifPresent(promoted -> {
+                        eventsRepository.addConfirmedRequests(eventId, promoted);
+                        changeOutbox.recordEvents(List.of(eventId), ChangeType.UPDATED);
+                    });
+        }
         return mapper.toRequestDto(request);
     }
 
     @Override
-    public List<ParticipationRequestDto> getRequestsToUser(int userId) {
-        usersRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFoundException("User with id = " + userId + " not found"));
-        return mapper.toRequestsDto(requestRepository.findByRequesterId(userId));
+    @Transactional(readOnly = true)
+    public void getRequestsToUser(int userId, Consumer<ParticipationRequestDto> consumer) {
+        checkRequester(userId);
+        try (Stream<RequestView> requests = requestRepository.streamViewsByRequesterId(userId)) {
+            requests.map(mapper::toRequestDto).forEach(consumer);
+        }
     }
 
     @Override
-    public List<ParticipationRequestDto> getRequestsToEvent(int userId, int eventId) {
-        eventsRepository.findByIdAndInitiatorId(eventId, userId)
-                .orElseThrow(() -> new DataNotFoundException("Event with id = " + eventId + "for initiator = " + userId
-                        + " not found"));
-        return mapper.toRequestsDto(requestRepository.findByEventId(eventId));
+    @Transactional(readOnly = true)
+    public void getRequestsToEvent(int userId, int eventId, Consumer<ParticipationRequestDto> consumer) {
+        exportRequestsToEvent(userId, eventId, null, consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ParticipationRequestDto> getRequestsToUser(int userId, List<Status> statuses, int afterId, int size) {
+        checkRequester(userId);
+        return mapper.toRequestViewsDto(requestRepository.findViewsByRequesterIdAndStatusInAndIdAfter(userId,
+                statuses(statuses), afterId, new OffsetBasedPageRequest(0, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ParticipationRequestDto> getRequestsToEvent(int userId, int eventId, List<Status> statuses,
+                                                            int afterId, int size) {
+        checkInitiator(userId, eventId);
+        return mapper.toRequestViewsDto(requestRepository.findViewsByEventIdAndStatusInAndIdAfter(eventId,
+                statuses(statuses), afterId, new OffsetBasedPageRequest(0, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportRequestsToEvent(int userId, int eventId, List<Status> statuses,
+                                      Consumer<ParticipationRequestDto> consumer) {
+        checkInitiator(userId, eventId);
+        try (Stream<RequestView> requests = requestRepository.streamViewsByEventIdAndStatusIn(eventId,
+                statuses(statuses))) {
+            requests.map(mapper::toRequestDto).forEach(consumer);
+        }
     }
 
     @Override
     @Transactional
     public EventRequestStatusUpdateResult confirmedOrRejectedRequests(int userId, int eventId,
                                                                       EventRequestStatusUpdateRequest request) {
-        Event event = eventsRepository.findByIdAndInitiatorId(eventId, userId)
+        eventsRepository.lockById(eventId);
+        EventLimitView event = eventsRepository.findLimitByIdAndInitiatorId(eventId, userId)
                 .orElseThrow(() -> new DataNotFoundException("Event with id = " + eventId + "for initiator id = "
                         + userId + " not found"));
         if (event.getState() != State.PUBLISHED) {
@@ -93,22 +163,61 @@ public class RequestServiceImpl implements RequestService {
         if (request.getStatus() != Status.CONFIRMED && request.getStatus() != Status.REJECTED) {
             throw new BadRequestException("Cannot change status to " + request.getStatus());
         }
-        if (event.getRequests().stream()
-                .filter(r -> r.getStatus() == Status.CONFIRMED)
-                .collect(Collectors.toSet()).size() + request.getRequestIds().size() > event.getParticipantLimit() &&
-                request.getStatus() == Status.CONFIRMED && event.getRequestModeration()) {
+        Set<Integer> ids = new HashSet<>(request.getRequestIds());
+        List<RequestView> updated = requestRepository.findViewsByEventIdAndIdInAndStatus(eventId, ids,
+                Status.PENDING);
+        if (updated.size() != ids.size()) {
+            throw new ConflictRequestException("Request must have status PENDING");
+        }
+        boolean limited = event.getParticipantLimit() != 0 && event.getRequestModeration();
+        int confirmed = event.getConfirmedRequests();
+        if (limited && request.getStatus() == Status.CONFIRMED
+                && confirmed + ids.size() > event.getParticipantLimit()) {
             throw new ConflictRequestException("The participant limit has been reached");
         }
-        requestRepository.saveAll(requestRepository.findAllById(request.getRequestIds()).stream()
-                .peek(r -> {
-                    if (r.getStatus() != Status.PENDING) {
-                        throw new ConflictRequestException("Request must have status PENDING");
-                    }
-                    r.setStatus(request.getStatus());
-                })
-                .collect(Collectors.toList()));
-        return new EventRequestStatusUpdateResult(
-                mapper.toRequestsDto(requestRepository.findByEventIdAndStatus(eventId, Status.CONFIRMED)),
-                mapper.toRequestsDto(requestRepository.findByEventIdAndStatus(eventId, Status.REJECTED)));
+        requestRepository.updatePendingStatusByEventIdAndIdIn(eventId, ids, request.getStatus());
+        changeOutbox.record(ChangeAggregate.REQUEST, ids, eventId, ChangeType.UPDATED);
+        if (request.getStatus() == Status.CONFIRMED) {
+            eventsRepository.addConfirmedRequests(eventId, ids.size());
+            eventPublisher.publishEvent(new SeatChange(eventId));
+        }
+        List<ParticipationRequestDto> confirmedRequests = new ArrayList<>();
+        List<ParticipationRequestDto> rejectedRequests = new ArrayList<>();
+        List<ParticipationRequestDto> changed = request.getStatus() == Status.CONFIRMED ? confirmedRequests
+                : rejectedRequests;
+        updated.forEach(r -> changed.add(mapper.toRequestDto(r, request.getStatus())));
+        if (limited && request.getStatus() == Status.CONFIRMED && !requestQueue.isEnabled()
+                && confirmed + ids.size() == event.getParticipantLimit()) {
+            requestRepository.findViewsByEventIdAndStatus(eventId, Status.PENDING)
+                    .forEach(r -> rejectedRequests.add(mapper.toRequestDto(r, Status.REJECTED)));
+            if (!rejectedRequests.isEmpty()) {
+                requestRepository.updatePendingStatusByEventId(eventId, Status.REJECTED);
+                changeOutbox.record(ChangeAggregate.REQUEST, rejectedRequests.stream()
+                        .map(ParticipationRequestDto::getId)
+                        .collect(Collectors.toList()), eventId, ChangeType.UPDATED);
+            }
+        }
+        return new EventRequestStatusUpdateResult(confirmedRequests, rejectedRequests);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkRequester(int userId) {
+        if (!usersRepository.findById(userId).isPresent()) {
+            throw new DataNotFoundException("User with id = " + userId + " not found");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkInitiator(int userId, int eventId) {
+        if (!eventsRepository.existsByIdAndInitiatorId(eventId, userId)) {
+            throw new DataNotFoundException("Event with id = " + eventId + "for initiator = " + userId
+                    + " not found");
+        }
+    }
+
+    private List<Status> statuses(List<Status> statuses) {
+        return statuses == null || statuses.isEmpty() ? List.of(Status.values()) : statuses;
     }
-}
\ No newline at end of file
+}
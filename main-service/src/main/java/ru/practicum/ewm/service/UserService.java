@@ -4,11 +4,12 @@ import ru.practicum.ewm.dto.NewUserRequest;
 import ru.practicum.ewm.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto saveUser(NewUserRequest userRequest);
 
-    List<UserDto> getUsers(List<Integer> ids, int from, int size);
+    void getUsers(List<Integer> ids, int from, int size, Consumer<UserDto> consumer);
 
     void removeUser(int id);
 }
\ No newline at end of file
@@ -2,22 +2,43 @@ package ru.practicum.ewm.service;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.cache.CompilationSnapshots;
 import ru.practicum.ewm.dto.NewUserRequest;
 import ru.practicum.ewm.dto.UserDto;
 import ru.practicum.ewm.exception.DataNotFoundException;
 import ru.practicum.ewm.mapper.UserMapper;
-import ru.practicum.ewm.model.User;
+import ru.practicum.ewm.model.Status;
+import ru.practicum.ewm.outbox.ChangeOutbox;
+import ru.practicum.ewm.outbox.ChangeType;
+import ru.practicum.ewm.repository.JpaCommentRepository;
+import ru.practicum.ewm.repository.JpaCompilationRepository;
+import ru.practicum.ewm.repository.JpaEventsRepository;
+import ru.practicum.ewm.repository.JpaRequestRepository;
 import ru.practicum.ewm.repository.JpaUsersRepository;
 import ru.practicum.ewm.utils.OffsetBasedPageRequest;
 
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 @Service
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final int STREAM_CHUNK_SIZE = 100;
+
     private final JpaUsersRepository repository;
+    private final JpaEventsRepository eventsRepository;
     private final UserMapper mapper;
+    private final JpaCompilationRepository compilationRepository;
+    private final CompilationSnapshots compilationSnapshots;
+    private final JpaRequestRepository requestRepository;
+    private final JpaCommentRepository commentRepository;
+    private final ChangeOutbox changeOutbox;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional
@@ -26,14 +47,20 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> getUsers(List<Integer> ids, int from, int size) {
-        List<User> users;
-        if (ids != null) {
-            users = repository.findByIdIn(ids, new OffsetBasedPageRequest(from, size)).toList();
-        } else {
-            users = repository.findAll(new OffsetBasedPageRequest(from, size)).toList();
+    public void getUsers(List<Integer> ids, int from, int size, Consumer<UserDto> consumer) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        for (int offset = 0; offset < size; offset += STREAM_CHUNK_SIZE) {
+            int limit = Math.min(STREAM_CHUNK_SIZE, size - offset);
+            OffsetBasedPageRequest page = new OffsetBasedPageRequest(from + offset, limit);
+            List<UserDto> users = transaction.execute(status -> mapper.toDtoUsers(ids != null
+                    ? repository.findByIdIn(ids, page).toList()
+                    : repository.findAll(page).toList()));
+            users.forEach(consumer);
+            if (users.size() < limit) {
+                return;
+            }
         }
-        return mapper.toDtoUsers(users);
     }
 
     @Override
@@ -42,6 +69,17 @@ public class UserServiceImpl implements UserService {
         if (repository.findById(id).isEmpty()) {
             throw new DataNotFoundException("User with id = " + id + " not found");
         }
+        List<Integer> deletedEvents = eventsRepository.findIdsByInitiatorId(id);
+        Set<Integer> updatedEvents = new TreeSet<>(requestRepository.findConfirmedEventIdsByRequesterId(id));
+        updatedEvents.addAll(commentRepository.findEventIdsByAuthorId(id));
+        deletedEvents.forEach(updatedEvents::remove);
+        eventsRepository.subtractRequestsOfRequester(id, Status.CONFIRMED.ordinal());
+        eventsRepository.subtractCommentsOfAuthor(id);
+        List<Integer> compilationIds = compilationRepository.findIdsByEventInitiatorId(id);
         repository.deleteById(id);
+        repository.flush();
+        compilationSnapshots.refresh(compilationIds);
+        changeOutbox.recordEvents(deletedEvents, ChangeType.DELETED);
+        changeOutbox.recordEvents(updatedEvents, ChangeType.UPDATED);
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package ru.practicum.ewm.service;
+
+import ru.practicum.ewm.dto.NewZoneDto;
+import ru.practicum.ewm.dto.ZoneDto;
+
+import java.util.List;
+
+public interface ZoneService {
+    ZoneDto saveZone(NewZoneDto newZoneDto);
+
+    ZoneDto getZone(int zoneId);
+
+    List<ZoneDto> getZones(int from, int size);
+
+    void removeZone(int zoneId);
+}
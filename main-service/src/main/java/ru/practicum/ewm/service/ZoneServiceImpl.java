@@ -0,0 +1,71 @@
+package ru.practicum.ewm.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.ewm.dto.NewZoneDto;
+import ru.practicum.ewm.dto.ZoneDto;
+import ru.practicum.ewm.exception.DataNotFoundException;
+import ru.practicum.ewm.mapper.ZoneMapper;
+import ru.practicum.ewm.model.Zone;
+import ru.practicum.ewm.repository.JpaEventsRepository;
+import ru.practicum.ewm.repository.JpaZoneRepository;
+import ru.practicum.ewm.repository.view.EventLocationView;
+import ru.practicum.ewm.utils.GeoHash;
+import ru.practicum.ewm.utils.OffsetBasedPageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ZoneServiceImpl implements ZoneService {
+    private static final int MEMBERSHIP_CHUNK = 500;
+
+    private final JpaZoneRepository repository;
+    private final JpaEventsRepository eventsRepository;
+    private final ZoneMapper mapper;
+
+    @Override
+    @Transactional
+    public ZoneDto saveZone(NewZoneDto newZoneDto) {
+        repository.lockMembership();
+        Zone zone = repository.save(mapper.toModelZone(newZoneDto));
+        List<Integer> members = new ArrayList<>();
+        for (String cell : GeoHash.cover(zone.getLat(), zone.getLon(), zone.getRadius())) {
+            for (EventLocationView event : eventsRepository.findLocationsByGeohashBetween(GeoHash.lowerBound(cell),
+                    GeoHash.upperBound(cell))) {
+                if (GeoHash.distanceKm(zone.getLat(), zone.getLon(), event.getLat(), event.getLon())
+                        <= zone.getRadius()) {
+                    members.add(event.getId());
+                }
+            }
+        }
+        for (int i = 0; i < members.size(); i += MEMBERSHIP_CHUNK) {
+            repository.addEvents(zone.getId(), members.subList(i, Math.min(members.size(), i + MEMBERSHIP_CHUNK)));
+        }
+        return mapper.toDtoZone(zone);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ZoneDto getZone(int zoneId) {
+        return mapper.toDtoZone(repository.findById(zoneId)
+                .orElseThrow(() -> new DataNotFoundException("Zone with id = " + zoneId + " not found")));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ZoneDto> getZones(int from, int size) {
+        return mapper.toDtoZones(repository.findAllByOrderById(new OffsetBasedPageRequest(from, size)));
+    }
+
+    @Override
+    @Transactional
+    public void removeZone(int zoneId) {
+        if (!repository.existsById(zoneId)) {
+            throw new DataNotFoundException("Zone with id = " + zoneId + " not found");
+        }
+        repository.deleteById(zoneId);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.ewm.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.ewm.dto.CommentShortDto;
+
+@Getter
+@AllArgsConstructor
+public class CommentChange {
+    private final int eventId;
+    private final String type;
+    private final CommentShortDto comment;
+}
@@ -0,0 +1,32 @@
+package ru.practicum.ewm.stream;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live comment feed of an event. Changes are pushed only after the transaction that made them commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentFeed {
+    public static final String ADDED = "comment-added";
+    public static final String UPDATED = "comment-updated";
+
+    private final EventStreamHub hub;
+
+    public SseEmitter subscribe(int eventId) {
+        return hub.subscribe(topic(eventId));
+    }
+
+    @TransactionalEventListener
+    public void onCommentChange(CommentChange change) {
+        hub.publish(topic(change.getEventId()), change.getType(), String.valueOf(change.getComment().getId()),
+                change.getComment());
+    }
+
+    private String topic(int eventId) {
+        return "comments:" + eventId;
+    }
+}
@@ -0,0 +1,299 @@
+package ru.practicum.ewm.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * In-process fan-out of server-sent events to the subscribers of a topic.
+ * <p>
+ * Idle subscribers hold only an async request and a bounded queue, no thread. A publish serializes the payload
+ * once and offers it to every queue; a small sender pool drains queues that have pending messages. A subscriber
+ * whose queue is full is evicted instead of slowing down the others, and a periodic heartbeat detects closed
+ * connections.
+ * <p>
+ * Servlet writes block while the client's socket buffer is full. A watchdog evicts a subscriber whose write has
+ * not returned within the write timeout and lends the pool an extra thread until that write returns, so a stalled
+ * client holds one sender thread without delaying the others. Emitters are only completed by sender threads:
+ * {@link SseEmitter} locks itself for the whole write, so a publisher or the watchdog completing it would wait for
+ * the stalled write too.
+ */
+@Slf4j
+@Component
+public class EventStreamHub implements MeterBinder {
+    private static final Message HEARTBEAT = new Message(null, null, null);
+    private static final long IDLE = 0;
+    private static final long STALLED = -1;
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+    private final long origin = System.nanoTime();
+    private final LongFunction<SseEmitter> emitters;
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final Set<Subscriber> writing = ConcurrentHashMap.newKeySet();
+    private final LongAdder subscribers = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final ThreadPoolExecutor sender;
+    private final ScheduledExecutorService heartbeat;
+
+    @Autowired
+    public EventStreamHub(ObjectMapper objectMapper,
+                          @Value("${ewm.stream.buffer-size:64}") int bufferSize,
+                          @Value("${ewm.stream.timeout:30m}") Duration timeout,
+                          @Value("${ewm.stream.heartbeat:30s}") Duration heartbeatInterval,
+                          @Value("${ewm.stream.sender-threads:2}") int senderThreads,
+                          @Value("${ewm.stream.write-timeout:5s}") Duration writeTimeout) {
+        this(objectMapper, bufferSize, timeout, heartbeatInterval, senderThreads, writeTimeout, SseEmitter::new);
+    }
+
+    EventStreamHub(ObjectMapper objectMapper, int bufferSize, Duration timeout, Duration heartbeatInterval,
+                   int senderThreads, Duration writeTimeout, LongFunction<SseEmitter> emitters) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.emitters = emitters;
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemon("ewm-stream-sender"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemon("ewm-stream-heartbeat"));
+        long interval = heartbeatInterval.toMillis();
+        heartbeat.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        long check = Math.max(1, writeTimeout.toMillis() / 2);
+        heartbeat.scheduleWithFixedDelay(this::evictStalled, check, check, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(String topic) {
+        return subscribe(topic, null);
+    }
+
+    /**
+     * Subscribes to the topic and queues the given event first, so the subscriber starts from a snapshot.
+     */
+    public SseEmitter subscribe(String topic, String name, String id, Object data) {
+        return subscribe(topic, message(name, id, data));
+    }
+
+    public boolean hasSubscribers(String topic) {
+        return topics.containsKey(topic);
+    }
+
+    public void publish(String topic, String name, String id, Object data) {
+        Set<Subscriber> topicSubscribers = topics.get(topic);
+        if (topicSubscribers == null || topicSubscribers.isEmpty()) {
+            return;
+        }
+        Message message = message(name, id, data);
+        if (message == null) {
+            return;
+        }
+        for (Subscriber subscriber : topicSubscribers) {
+            offer(subscriber, message);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ewm.stream.subscribers", subscribers, LongAdder::sum).register(registry);
+        FunctionCounter.builder("ewm.stream.evicted", evicted, LongAdder::sum).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        topics.values().forEach(topicSubscribers -> topicSubscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    private SseEmitter subscribe(String topic, Message initial) {
+        SseEmitter emitter = emitters.apply(timeoutMillis);
+        Subscriber subscriber = new Subscriber(topic, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        topics.compute(topic, (t, topicSubscribers) -> {
+            Set<Subscriber> result = topicSubscribers != null ? topicSubscribers : ConcurrentHashMap.newKeySet();
+            result.add(subscriber);
+            return result;
+        });
+        subscribers.increment();
+        if (initial != null) {
+            offer(subscriber, initial);
+        }
+        return emitter;
+    }
+
+    private Message message(String name, String id, Object data) {
+        try {
+            return new Message(name, id, objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            log.warn("Cannot serialize {} event", name, e);
+            return null;
+        }
+    }
+
+    private void offer(Subscriber subscriber, Message message) {
+        if (subscriber.evicted) {
+            return;
+        }
+        if (!subscriber.queue.offer(message)) {
+            evict(subscriber, "slow");
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Message message;
+            while (!subscriber.evicted && (message = subscriber.queue.poll()) != null) {
+                long started = System.nanoTime() - origin + 1;
+                subscriber.sendingSince.set(started);
+                writing.add(subscriber);
+                try {
+                    subscriber.emitter.send(message == HEARTBEAT ? SseEmitter.event().comment("heartbeat")
+                            : event(message));
+                } finally {
+                    writing.remove(subscriber);
+                    if (!subscriber.sendingSince.compareAndSet(started, IDLE)) {
+                        subscriber.sendingSince.set(IDLE);
+                        releaseThread();
+                    }
+                }
+            }
+            if (subscriber.evicted) {
+                subscriber.queue.clear();
+                subscriber.emitter.complete();
+                return;
+            }
+        } catch (Exception e) {
+            remove(subscriber);
+            subscriber.queue.clear();
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void evictStalled() {
+        long now = System.nanoTime() - origin + 1;
+        writing.forEach(subscriber -> {
+            long started = subscriber.sendingSince.get();
+            if (started > IDLE && now - started > writeTimeoutNanos
+                    && subscriber.sendingSince.compareAndSet(started, STALLED)) {
+                lendThread();
+                evict(subscriber, "stalled");
+            }
+        });
+    }
+
+    private void evict(Subscriber subscriber, String reason) {
+        subscriber.evicted = true;
+        if (remove(subscriber)) {
+            evicted.increment();
+            log.debug("Evicting {} subscriber of topic {}", reason, subscriber.topic);
+        }
+    }
+
+    private synchronized void lendThread() {
+        sender.setMaximumPoolSize(sender.getMaximumPoolSize() + 1);
+        sender.setCorePoolSize(sender.getCorePoolSize() + 1);
+    }
+
+    private synchronized void releaseThread() {
+        sender.setCorePoolSize(sender.getCorePoolSize() - 1);
+        sender.setMaximumPoolSize(sender.getMaximumPoolSize() - 1);
+    }
+
+    private SseEmitter.SseEventBuilder event(Message message) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(message.name);
+        if (message.id != null) {
+            event.id(message.id);
+        }
+        return event.data(message.json, MediaType.APPLICATION_JSON);
+    }
+
+    private void heartbeat() {
+        topics.values().forEach(topicSubscribers -> topicSubscribers.forEach(s -> offer(s, HEARTBEAT)));
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        topics.computeIfPresent(subscriber.topic, (topic, topicSubscribers) -> {
+            if (topicSubscribers.remove(subscriber)) {
+                subscribers.decrement();
+                removed[0] = true;
+            }
+            return topicSubscribers.isEmpty() ? null : topicSubscribers;
+        });
+        return removed[0];
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Subscriber {
+        private final String topic;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong sendingSince = new AtomicLong(IDLE);
+        private volatile boolean evicted;
+
+        private Subscriber(String topic, SseEmitter emitter, BlockingQueue<Message> queue) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+
+    private static final class Message {
+        private final String name;
+        private final String id;
+        private final String json;
+
+        private Message(String name, String id, String json) {
+            this.name = name;
+            this.id = id;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.ewm.stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SeatChange {
+    private final int eventId;
+}
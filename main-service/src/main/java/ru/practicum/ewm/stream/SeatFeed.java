@@ -0,0 +1,73 @@
+package ru.practicum.ewm.stream;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.ewm.dto.SeatAvailabilityDto;
+import ru.practicum.ewm.exception.DataNotFoundException;
+import ru.practicum.ewm.repository.JpaEventsRepository;
+import ru.practicum.ewm.repository.view.EventSeatsView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live seat availability of an event. Committed changes only mark the event dirty; a periodic flush reads the
+ * current counters of all dirty events in one query and pushes one message per event, so bursts of confirmations
+ * are coalesced into at most one update per interval.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatFeed {
+    public static final String SEATS = "seats";
+    private static final int CHUNK_SIZE = 500;
+
+    private final EventStreamHub hub;
+    private final JpaEventsRepository eventsRepository;
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+
+    public SseEmitter subscribe(int eventId) {
+        EventSeatsView seats = eventsRepository.findSeatsByIdIn(List.of(eventId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new DataNotFoundException("Event with id = " + eventId + " not found"));
+        SseEmitter emitter = hub.subscribe(topic(eventId), SEATS, null, toDto(seats));
+        // A change committed between the snapshot and the registration found no subscriber, so re-read it on flush.
+        dirty.add(eventId);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onSeatChange(SeatChange change) {
+        if (hub.hasSubscribers(topic(change.getEventId()))) {
+            dirty.add(change.getEventId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ewm.stream.seats.interval-ms:1000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(dirty);
+        dirty.removeAll(ids);
+        for (int i = 0; i < ids.size(); i += CHUNK_SIZE) {
+            eventsRepository.findSeatsByIdIn(ids.subList(i, Math.min(i + CHUNK_SIZE, ids.size())))
+                    .forEach(seats -> hub.publish(topic(seats.getId()), SEATS, null, toDto(seats)));
+        }
+    }
+
+    private SeatAvailabilityDto toDto(EventSeatsView seats) {
+        Integer available = seats.getParticipantLimit() == 0 ? null
+                : Math.max(0, seats.getParticipantLimit() - seats.getConfirmedRequests());
+        return new SeatAvailabilityDto(seats.getId(), seats.getParticipantLimit(), seats.getConfirmedRequests(),
+                available);
+    }
+
+    private String topic(int eventId) {
+        return "seats:" + eventId;
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.ewm.utils;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Geohash encoding and radius covering used by the "events near a point" search.
+ * <p>
+ * Events store a full precision geohash, so every cell of a covering maps to a contiguous range of the
+ * B-tree index: {@code [prefix + "000...", prefix + "zzz..."]}.
+ */
+public final class GeoHash {
+    public static final int PRECISION = 12;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.toRadians(EARTH_RADIUS_KM);
+
+    private GeoHash() {
+    }
+
+    public static String encode(double lat, double lon, int precision) {
+        double minLat = -90;
+        double maxLat = 90;
+        double minLon = -180;
+        double maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean even = true;
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (even) {
+                double mid = (minLon + maxLon) / 2;
+                if (lon >= mid) {
+                    ch = ch << 1 | 1;
+                    minLon = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = ch << 1 | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            even = !even;
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Returns the geohash cells that together cover the circle of the given radius, at the finest precision
+     * whose cells are still at least as large as the radius, so at most nine cells are needed. An empty prefix
+     * means the circle is too large to be narrowed down by geohash.
+     */
+    public static Set<String> cover(double lat, double lon, double radiusKm) {
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double maxAbsLat = Math.min(90, Math.abs(lat) + dLat);
+        double cos = Math.cos(Math.toRadians(maxAbsLat));
+        double dLon = cos <= 0 ? 360 : radiusKm / (KM_PER_DEGREE * cos);
+        int precision = 0;
+        for (int p = 1; p <= PRECISION; p++) {
+            int lonBits = (5 * p + 1) / 2;
+            int latBits = 5 * p / 2;
+            if (180 / Math.pow(2, latBits) < dLat || 360 / Math.pow(2, lonBits) < dLon) {
+                break;
+            }
+            precision = p;
+        }
+        Set<String> cells = new TreeSet<>();
+        if (precision == 0 || dLon >= 180) {
+            cells.add("");
+            return cells;
+        }
+        for (int i = -1; i <= 1; i++) {
+            double cellLat = Math.max(-90, Math.min(90, lat + i * dLat));
+            for (int j = -1; j <= 1; j++) {
+                cells.add(encode(cellLat, normalizeLon(lon + j * dLon), precision));
+            }
+        }
+        return cells;
+    }
+
+    public static String lowerBound(String prefix) {
+        return pad(prefix, '0');
+    }
+
+    public static String upperBound(String prefix) {
+        return pad(prefix, 'z');
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static double normalizeLon(double lon) {
+        if (lon >= 180) {
+            return lon - 360;
+        }
+        if (lon < -180) {
+            return lon + 360;
+        }
+        return lon;
+    }
+
+    private static String pad(String prefix, char ch) {
+        StringBuilder bound = new StringBuilder(PRECISION).append(prefix);
+        while (bound.length() < PRECISION) {
+            bound.append(ch);
+        }
+        return bound.toString();
+    }
+}
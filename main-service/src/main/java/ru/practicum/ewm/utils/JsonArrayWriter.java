@@ -0,0 +1,58 @@
+package ru.practicum.ewm.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a JSON array one element at a time, so a list response never exists in memory as a whole.
+ */
+public class JsonArrayWriter<T> implements Consumer<T>, Closeable {
+    private final ObjectWriter writer;
+    private final JsonGenerator json;
+
+    public JsonArrayWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        json = objectMapper.getFactory().createGenerator(out);
+        json.writeStartArray();
+    }
+
+    /**
+     * Streams the elements handed to the consumer by the producer as a JSON array response body. The array is
+     * left unterminated when the producer fails, so a broken response never parses as a complete one.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> response(ObjectMapper objectMapper,
+                                                                     Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = out -> {
+            JsonArrayWriter<T> writer = new JsonArrayWriter<>(out, objectMapper);
+            producer.accept(writer);
+            writer.close();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            writer.writeValue(json, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.writeEndArray();
+        json.close();
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.ewm.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes values one per line as newline delimited JSON.
+ */
+public class NdjsonWriter implements Consumer<Object>, Closeable {
+    private final ObjectWriter writer;
+    private final JsonGenerator json;
+
+    public NdjsonWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        json = objectMapper.getFactory().createGenerator(out);
+        json.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void accept(Object value) {
+        try {
+            writer.writeValue(json, value);
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+}
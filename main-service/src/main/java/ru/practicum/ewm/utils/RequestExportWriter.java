@@ -0,0 +1,62 @@
+package ru.practicum.ewm.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ru.practicum.ewm.dto.ParticipationRequestDto;
+import ru.practicum.ewm.model.DataFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Writes participation requests one row at a time, as newline delimited JSON or CSV with a header line.
+ */
+public class RequestExportWriter implements Consumer<ParticipationRequestDto>, Closeable {
+    private static final String CSV_HEADER = "id,created,event,requester,status";
+
+    private final ObjectWriter jsonWriter;
+    private final JsonGenerator json;
+    private final Writer csv;
+
+    public RequestExportWriter(OutputStream out, DataFormat format, ObjectMapper objectMapper) throws IOException {
+        if (format == DataFormat.CSV) {
+            jsonWriter = null;
+            json = null;
+            csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            csv.write(CSV_HEADER);
+            csv.write('\n');
+        } else {
+            jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            json = objectMapper.getFactory().createGenerator(out);
+            json.setRootValueSeparator(null);
+            csv = null;
+        }
+    }
+
+    @Override
+    public void accept(ParticipationRequestDto request) {
+        try {
+            if (json != null) {
+                jsonWriter.writeValue(json, request);
+                json.writeRaw('\n');
+            } else {
+                csv.write(request.getId() + "," + request.getCreated() + "," + request.getEvent() + ","
+                        + request.getRequester() + "," + request.getStatus() + "\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.close();
+        } else {
+            csv.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.ewm.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.ewm.model.DataFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads import rows one line at a time, as newline delimited JSON objects or CSV with a header line.
+ * <p>
+ * CSV columns become object fields, a dotted header such as {@code location.lat} becomes a nested field and an
+ * empty cell is left out. A row that cannot be parsed carries an error instead of a value, so one broken line
+ * does not stop the import.
+ */
+public class RowReader implements Closeable {
+    private final BufferedReader reader;
+    private final DataFormat format;
+    private final ObjectMapper objectMapper;
+    private final String[] header;
+    private int number;
+
+    public RowReader(InputStream in, DataFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == DataFormat.CSV) {
+            String line = reader.readLine();
+            this.header = line == null ? new String[0] : split(line).toArray(new String[0]);
+        } else {
+            this.header = null;
+        }
+    }
+
+    /**
+     * Returns the next non-blank row, or null at the end of the input. Rows are numbered by data line, not
+     * counting the CSV header.
+     */
+    public Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            number++;
+        } while (line.isBlank());
+        if (format == DataFormat.NDJSON) {
+            try {
+                return new Row(number, objectMapper.readTree(line), null);
+            } catch (JsonProcessingException e) {
+                return new Row(number, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        List<String> cells = split(line);
+        if (cells.size() != header.length) {
+            return new Row(number, null, "Expected " + header.length + " columns but found " + cells.size());
+        }
+        ObjectNode node = objectMapper.createObjectNode();
+        for (int i = 0; i < header.length; i++) {
+            if (!cells.get(i).isEmpty()) {
+                ObjectNode parent = node;
+                String[] path = header[i].split("\\.");
+                for (int j = 0; j < path.length - 1; j++) {
+                    parent = parent.has(path[j]) ? (ObjectNode) parent.get(path[j]) : parent.putObject(path[j]);
+                }
+                parent.put(path[path.length - 1], cells.get(i));
+            }
+        }
+        return new Row(number, node, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static List<String> split(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(ch);
+            }
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Row {
+        private final int number;
+        private final JsonNode value;
+        private final String error;
+    }
+}
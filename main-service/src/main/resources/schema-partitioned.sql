@@ -0,0 +1,149 @@
+-- PostgreSQL 12+ schema of the partitioned profile. Statements end with a caret separator
+-- (spring.sql.init.separator) because the plpgsql body below contains semicolons.
+DROP TABLE IF EXISTS users, categories, events, requests, compilations, compilations_events,
+    compilation_snapshots, comments, zones, zones_events, zone_membership_lock, outbox CASCADE^;
+DROP SEQUENCE IF EXISTS requests_seq, events_event_id_seq^;
+DROP FUNCTION IF EXISTS events_delete_cascade^;
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    email varchar(254) UNIQUE NOT NULL,
+    name varchar(250) NOT NULL
+)^;
+
+CREATE TABLE IF NOT EXISTS categories (
+    category_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    name varchar(50) UNIQUE NOT NULL
+)^;
+
+-- Events are range partitioned by event_date month. Monthly partitions are created ahead of time and old ones
+-- detached by EventPartitionMaintainer, rows outside the maintained months land in events_default.
+-- Only queries bounding event_date are pruned. A lookup by event_id alone probes the primary key index of every
+-- partition, so its cost grows with the number of attached partitions.
+CREATE SEQUENCE IF NOT EXISTS events_event_id_seq^;
+
+CREATE TABLE IF NOT EXISTS events (
+    event_id integer DEFAULT nextval('events_event_id_seq') NOT NULL,
+    title varchar(120) NOT NULL,
+    annotation varchar(2000) NOT NULL,
+    description varchar(7000) NOT NULL,
+    category_id integer NOT NULL REFERENCES categories(category_id) ON DELETE CASCADE,
+    initiator_id integer NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    created_on TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    published_on TIMESTAMP WITH TIME ZONE,
+    event_date TIMESTAMP WITH TIME ZONE NOT NULL,
+    location_lat float NOT NULL,
+    location_lon float NOT NULL,
+    geohash varchar(12) NOT NULL,
+    state integer NOT NULL,
+    participant_limit integer NOT NULL,
+    request_moderation boolean NOT NULL,
+    paid boolean NOT NULL,
+    confirmed_requests integer DEFAULT 0 NOT NULL,
+    comments_count integer DEFAULT 0 NOT NULL,
+    last_comment_at TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (event_id, event_date)
+) PARTITION BY RANGE (event_date)^;
+
+CREATE TABLE IF NOT EXISTS events_default PARTITION OF events DEFAULT^;
+
+CREATE INDEX IF NOT EXISTS events_geohash_idx ON events (geohash)^;
+CREATE INDEX IF NOT EXISTS events_state_event_date_idx ON events (state, event_date)^;
+
+-- A unique key of a partitioned table must contain the partition key, so event_id alone cannot be referenced by
+-- foreign keys. Dependent rows are removed by this trigger instead. It skips rows that moved to another partition
+-- on an event_date update and rows moved out of events_default by the partition maintainer.
+CREATE OR REPLACE FUNCTION events_delete_cascade() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('ewm.partition_maintenance', true) = 'on'
+            OR EXISTS (SELECT 1 FROM events WHERE event_id = OLD.event_id) THEN
+        RETURN OLD;
+    END IF;
+    DELETE FROM requests WHERE event_id = OLD.event_id;
+    DELETE FROM comments WHERE event_id = OLD.event_id;
+    DELETE FROM compilations_events WHERE event_id = OLD.event_id;
+    DELETE FROM zones_events WHERE event_id = OLD.event_id;
+    RETURN OLD;
+END
+$$ LANGUAGE plpgsql^;
+
+CREATE TRIGGER events_delete_cascade AFTER DELETE ON events
+    FOR EACH ROW EXECUTE FUNCTION events_delete_cascade()^;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50^;
+
+CREATE TABLE IF NOT EXISTS requests (
+    request_id integer NOT NULL PRIMARY KEY,
+    requester_id integer NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    event_id integer NOT NULL,
+    created TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    status integer NOT NULL
+)^;
+
+CREATE INDEX IF NOT EXISTS requests_event_status_created_idx ON requests (event_id, status, created)^;
+CREATE INDEX IF NOT EXISTS requests_event_id_idx ON requests (event_id, request_id)^;
+CREATE INDEX IF NOT EXISTS requests_requester_id_idx ON requests (requester_id, request_id)^;
+
+CREATE TABLE IF NOT EXISTS compilations (
+    compilation_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    title varchar(50) NOT NULL,
+    pinned boolean NOT NULL
+)^;
+
+CREATE TABLE IF NOT EXISTS compilations_events (
+    compilation_id integer NOT NULL REFERENCES compilations (compilation_id) ON DELETE CASCADE,
+    event_id integer NOT NULL,
+    PRIMARY KEY (compilation_id, event_id)
+)^;
+CREATE INDEX IF NOT EXISTS compilations_events_event_id_idx ON compilations_events (event_id)^;
+
+CREATE TABLE IF NOT EXISTS compilation_snapshots (
+    compilation_id integer NOT NULL PRIMARY KEY REFERENCES compilations (compilation_id) ON DELETE CASCADE,
+    pinned boolean NOT NULL,
+    snapshot text NOT NULL
+)^;
+CREATE INDEX IF NOT EXISTS compilation_snapshots_pinned_idx ON compilation_snapshots (pinned, compilation_id)^;
+
+CREATE TABLE IF NOT EXISTS comments (
+    comment_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    text varchar(255) NOT NULL,
+    author_id integer NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+    event_id integer NOT NULL,
+    created TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL
+)^;
+
+CREATE INDEX IF NOT EXISTS comments_event_created_idx ON comments (event_id, created, comment_id)^;
+CREATE INDEX IF NOT EXISTS comments_author_created_idx ON comments (author_id, created, comment_id)^;
+CREATE INDEX IF NOT EXISTS comments_author_event_idx ON comments (author_id, event_id, comment_id)^;
+
+CREATE TABLE IF NOT EXISTS zones (
+    zone_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    name varchar(120) UNIQUE NOT NULL,
+    lat float NOT NULL,
+    lon float NOT NULL,
+    radius float NOT NULL
+)^;
+
+CREATE TABLE IF NOT EXISTS zones_events (
+    zone_id integer NOT NULL REFERENCES zones (zone_id) ON DELETE CASCADE,
+    event_id integer NOT NULL,
+    PRIMARY KEY (zone_id, event_id)
+)^;
+
+CREATE INDEX IF NOT EXISTS zones_events_event_idx ON zones_events (event_id)^;
+
+-- Single row locked by zone creation and by event location writes, so each side sees the other's rows.
+CREATE TABLE IF NOT EXISTS zone_membership_lock (
+    lock_id integer NOT NULL PRIMARY KEY
+)^;
+
+INSERT INTO zone_membership_lock (lock_id) VALUES (1)^;
+
+CREATE TABLE IF NOT EXISTS outbox (
+    outbox_id bigint GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    aggregate integer NOT NULL,
+    aggregate_id integer NOT NULL,
+    event_id integer,
+    change_type integer NOT NULL,
+    created TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL
+)^;
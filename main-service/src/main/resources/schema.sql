@@ -1,4 +1,6 @@
-DROP TABLE IF EXISTS users, categories, events, requests, compilations, compilations_events, comments;
+DROP TABLE IF EXISTS users, categories, events, requests, compilations, compilations_events,
+    compilation_snapshots, comments, zones, zones_events, zone_membership_lock, outbox;
+DROP SEQUENCE IF EXISTS requests_seq;
 
 CREATE TABLE IF NOT EXISTS users (
     user_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
@@ -23,20 +25,33 @@ CREATE TABLE IF NOT EXISTS events (
     event_date TIMESTAMP WITH TIME ZONE NOT NULL,
     location_lat float NOT NULL,
     location_lon float NOT NULL,
+    geohash varchar(12) NOT NULL,
     state integer NOT NULL,
     participant_limit integer NOT NULL,
     request_moderation boolean NOT NULL,
-    paid boolean NOT NULL
+    paid boolean NOT NULL,
+    confirmed_requests integer DEFAULT 0 NOT NULL,
+    comments_count integer DEFAULT 0 NOT NULL,
+    last_comment_at TIMESTAMP WITH TIME ZONE
 );
 
+CREATE INDEX IF NOT EXISTS events_geohash_idx ON events (geohash);
+CREATE INDEX IF NOT EXISTS events_state_event_date_idx ON events (state, event_date);
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS requests (
-    request_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    request_id integer NOT NULL PRIMARY KEY,
     requester_id integer NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
     event_id integer NOT NULL REFERENCES events(event_id) ON DELETE CASCADE,
     created TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
     status integer NOT NULL
 );
 
+CREATE INDEX IF NOT EXISTS requests_event_status_created_idx ON requests (event_id, status, created);
+CREATE INDEX IF NOT EXISTS requests_event_id_idx ON requests (event_id, request_id);
+CREATE INDEX IF NOT EXISTS requests_requester_id_idx ON requests (requester_id, request_id);
+
 CREATE TABLE IF NOT EXISTS compilations (
     compilation_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
     title varchar(50) NOT NULL,
@@ -48,6 +63,14 @@ CREATE TABLE IF NOT EXISTS compilations_events (
     event_id integer NOT NULL REFERENCES events (event_id) ON DELETE CASCADE,
     PRIMARY KEY (compilation_id, event_id)
 );
+CREATE INDEX IF NOT EXISTS compilations_events_event_id_idx ON compilations_events (event_id);
+
+CREATE TABLE IF NOT EXISTS compilation_snapshots (
+    compilation_id integer NOT NULL PRIMARY KEY REFERENCES compilations (compilation_id) ON DELETE CASCADE,
+    pinned boolean NOT NULL,
+    snapshot text NOT NULL
+);
+CREATE INDEX IF NOT EXISTS compilation_snapshots_pinned_idx ON compilation_snapshots (pinned, compilation_id);
 
 CREATE TABLE IF NOT EXISTS comments (
     comment_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
@@ -55,4 +78,40 @@ CREATE TABLE IF NOT EXISTS comments (
     author_id integer NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
     event_id integer NOT NULL REFERENCES events(event_id) ON DELETE CASCADE,
     created TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS comments_event_created_idx ON comments (event_id, created, comment_id);
+CREATE INDEX IF NOT EXISTS comments_author_created_idx ON comments (author_id, created, comment_id);
+CREATE INDEX IF NOT EXISTS comments_author_event_idx ON comments (author_id, event_id, comment_id);
+
+CREATE TABLE IF NOT EXISTS zones (
+    zone_id integer GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    name varchar(120) UNIQUE NOT NULL,
+    lat float NOT NULL,
+    lon float NOT NULL,
+    radius float NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS zones_events (
+    zone_id integer NOT NULL REFERENCES zones (zone_id) ON DELETE CASCADE,
+    event_id integer NOT NULL REFERENCES events (event_id) ON DELETE CASCADE,
+    PRIMARY KEY (zone_id, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS zones_events_event_idx ON zones_events (event_id);
+
+-- Single row locked by zone creation and by event location writes, so each side sees the other's rows.
+CREATE TABLE IF NOT EXISTS zone_membership_lock (
+    lock_id integer NOT NULL PRIMARY KEY
+);
+
+INSERT INTO zone_membership_lock (lock_id) VALUES (1);
+
+CREATE TABLE IF NOT EXISTS outbox (
+    outbox_id bigint GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    aggregate integer NOT NULL,
+    aggregate_id integer NOT NULL,
+    event_id integer,
+    change_type integer NOT NULL,
+    created TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
@@ -0,0 +1,39 @@
+package ru.practicum.ewm;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.ewm.dto.NewUserRequest;
+import ru.practicum.ewm.service.UserService;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+class AdminListStreamingIntegrationTest {
+    @Autowired
+    private UserService userService;
+
+    @Test
+    @DirtiesContext
+    void getUsersShouldHandOutEveryChunkOutsideTransaction() {
+        for (int i = 0; i < 150; i++) {
+            NewUserRequest user = new NewUserRequest();
+            user.setName("user" + i);
+            user.setEmail("user" + i + "@mail.ru");
+            userService.saveUser(user);
+        }
+        AtomicInteger streamed = new AtomicInteger();
+
+        userService.getUsers(null, 0, 200, user -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            streamed.incrementAndGet();
+        });
+
+        assertEquals(150, streamed.get());
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.ewm;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+public class CountingStatementInspector implements StatementInspector {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql.toLowerCase());
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static long count(String prefix) {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.startsWith(prefix))
+                .count();
+    }
+
+    public static List<String> containing(String fragment) {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.contains(fragment))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.ewm;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+import ru.practicum.ewm.dto.NewCategoryDto;
+import ru.practicum.ewm.dto.NewEventDto;
+import ru.practicum.ewm.dto.NewUserRequest;
+import ru.practicum.ewm.dto.UpdateEventAdminRequest;
+import ru.practicum.ewm.model.Location;
+import ru.practicum.ewm.model.StateActionAdmin;
+import ru.practicum.ewm.service.CategoryService;
+import ru.practicum.ewm.service.EventService;
+import ru.practicum.ewm.service.RequestService;
+import ru.practicum.ewm.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Users, a "Concert" event and its participation requests for integration tests, created through the services.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class EventFixtures {
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final EventService eventService;
+    private final RequestService requestService;
+
+    public int saveUser(String name) {
+        NewUserRequest user = new NewUserRequest();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return userService.saveUser(user).getId();
+    }
+
+    /**
+     * Builds a new event five days ahead in a newly saved category.
+     */
+    public NewEventDto newEvent(int participantLimit, boolean requestModeration) {
+        NewCategoryDto category = new NewCategoryDto();
+        category.setName("concerts");
+        NewEventDto newEvent = new NewEventDto();
+        newEvent.setTitle("Concert");
+        newEvent.setAnnotation("Annotation of the concert event");
+        newEvent.setDescription("Description of the concert event");
+        newEvent.setCategory(categoryService.saveCategory(category).getId());
+        newEvent.setEventDate(LocalDateTime.now().plusDays(5).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        newEvent.setParticipantLimit(participantLimit);
+        newEvent.setRequestModeration(requestModeration);
+        newEvent.setLocation(new Location(55.75f, 37.62f));
+        return newEvent;
+    }
+
+    public int savePublishedEvent(int initiatorId, int participantLimit) {
+        int eventId = eventService.saveEvent(initiatorId, newEvent(participantLimit, true)).getId();
+        UpdateEventAdminRequest publish = new UpdateEventAdminRequest();
+        publish.setStateAction(StateActionAdmin.PUBLISH_EVENT);
+        eventService.updateEventAdmin(eventId, publish);
+        return eventId;
+    }
+
+    /**
+     * Saves the given number of requesters and one pending request of each, in order.
+     */
+    public List<Integer> saveRequests(int eventId, int count) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(requestService.saveRequest(saveUser("requester" + i), eventId).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.ewm;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+import org.h2.api.ErrorCode;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps an H2 connection in the pool after a lock timeout, like a PostgreSQL connection after a NOWAIT failure.
+ */
+public class H2LockTimeoutOverride implements SQLExceptionOverride {
+
+    public Override adjudicate(SQLException e) {
+        return e.getErrorCode() == ErrorCode.LOCK_TIMEOUT_1 ? Override.DO_NOT_EVICT : Override.CONTINUE_EVICT;
+    }
+}
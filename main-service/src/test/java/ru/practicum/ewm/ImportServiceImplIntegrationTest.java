@@ -0,0 +1,47 @@
+package ru.practicum.ewm;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.ewm.cache.Catalog;
+import ru.practicum.ewm.cache.CatalogVersions;
+import ru.practicum.ewm.dto.ImportSummaryDto;
+import ru.practicum.ewm.model.DataFormat;
+import ru.practicum.ewm.service.ImportService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest
+class ImportServiceImplIntegrationTest {
+    @Autowired
+    private ImportService importService;
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Test
+    @DirtiesContext
+    void importCategoriesShouldBumpCatalogVersionOnlyWhenRowsAreInserted() {
+        String categories = catalogVersions.etag(Catalog.CATEGORIES);
+
+        ImportSummaryDto summary = importCategories("{\"name\":\"jazz\"}\n{\"name\":\"rock\"}\n");
+
+        assertEquals(2, summary.getImported());
+        String imported = catalogVersions.etag(Catalog.CATEGORIES);
+        assertNotEquals(categories, imported);
+
+        ImportSummaryDto duplicates = importCategories("{\"name\":\"jazz\"}\n{\"name\":\"rock\"}\n");
+
+        assertEquals(2, duplicates.getFailed());
+        assertEquals(imported, catalogVersions.etag(Catalog.CATEGORIES));
+    }
+
+    private ImportSummaryDto importCategories(String ndjson) {
+        return importService.importCategories(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                DataFormat.NDJSON, error -> { });
+    }
+}
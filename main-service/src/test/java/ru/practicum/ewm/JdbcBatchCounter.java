@@ -0,0 +1,65 @@
+package ru.practicum.ewm;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Wraps the DataSource and records the size of every executeBatch call with the SQL of its statement.
+ */
+public class JdbcBatchCounter implements BeanPostProcessor {
+    private static final List<Map.Entry<String, Integer>> BATCHES = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource) {
+            return proxy(DataSource.class, bean, null);
+        }
+        return bean;
+    }
+
+    public static void clear() {
+        BATCHES.clear();
+    }
+
+    public static List<Integer> batches(String prefix) {
+        return BATCHES.stream()
+                .filter(batch -> batch.getKey().startsWith(prefix))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    private static Object proxy(Class<?> type, Object target, String sql) {
+        int[] pending = new int[1];
+        return Proxy.newProxyInstance(JdbcBatchCounter.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("addBatch") && method.getParameterCount() == 0) {
+                        pending[0]++;
+                    } else if (method.getName().equals("executeBatch")) {
+                        BATCHES.add(Map.entry(sql, pending[0]));
+                        pending[0] = 0;
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Connection && method.getName().equals("getConnection")) {
+                        return proxy(Connection.class, result, null);
+                    }
+                    if (result instanceof PreparedStatement && method.getName().equals("prepareStatement")) {
+                        return proxy(PreparedStatement.class, result, ((String) args[0]).toLowerCase());
+                    }
+                    return result;
+                });
+    }
+}
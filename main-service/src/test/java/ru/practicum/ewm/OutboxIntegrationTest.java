@@ -0,0 +1,193 @@
+package ru.practicum.ewm;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.dto.NewCommentDto;
+import ru.practicum.ewm.outbox.ChangeOutbox;
+import ru.practicum.ewm.outbox.ChangeRecord;
+import ru.practicum.ewm.outbox.ChangeSubscriber;
+import ru.practicum.ewm.outbox.ChangeType;
+import ru.practicum.ewm.outbox.OutboxPoller;
+import ru.practicum.ewm.service.EventService;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("outbox")
+@SpringBootTest(properties = {
+        "ewm.outbox.interval-ms=3600000",
+        "ewm.outbox.batch-size=2"
+})
+@Import(EventFixtures.class)
+class OutboxIntegrationTest {
+    @Autowired
+    private EventFixtures fixtures;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ChangeOutbox changeOutbox;
+    @Autowired
+    private OutboxPoller outboxPoller;
+    @Autowired
+    private RecordingSubscriber subscriber;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DirtiesContext
+    void committedChangesShouldBeDeliveredInOrderAndDeleted() {
+        int userId = fixtures.saveUser("initiator");
+        int eventId = fixtures.savePublishedEvent(userId, 0);
+        NewCommentDto comment = new NewCommentDto();
+        comment.setText("See you there");
+        int commentId = eventService.addComment(comment, eventId, userId).getId();
+
+        outboxPoller.poll();
+
+        assertEquals(List.of("EVENT " + eventId + " CREATED", "EVENT " + eventId + " UPDATED",
+                "COMMENT " + commentId + " CREATED"), subscriber.changes());
+        assertEquals(List.of(2, 1), subscriber.batchSizes());
+        assertEquals(0, outboxSize());
+    }
+
+    @Test
+    @DirtiesContext
+    void rolledBackChangeShouldLeaveNoRecord() {
+        int userId = fixtures.saveUser("initiator");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventService.saveEvent(userId, fixtures.newEvent(0, false));
+            status.setRollbackOnly();
+        });
+        outboxPoller.poll();
+
+        assertEquals(0, outboxSize());
+        assertEquals(List.of(), subscriber.changes());
+    }
+
+    @Test
+    @DirtiesContext
+    void recordShouldRequireCallerTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> changeOutbox.recordEvents(List.of(1), ChangeType.CREATED));
+        assertEquals(0, outboxSize());
+    }
+
+    @Test
+    @DirtiesContext
+    void recordEventsShouldWriteEveryChunk() {
+        List<Integer> eventIds = IntStream.rangeClosed(1, 1001).boxed().collect(Collectors.toList());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> changeOutbox.recordEvents(eventIds, ChangeType.UPDATED));
+
+        assertEquals(1001, outboxSize());
+        outboxPoller.poll();
+        assertEquals(eventIds.stream().map(id -> "EVENT " + id + " UPDATED").collect(Collectors.toList()),
+                subscriber.changes());
+    }
+
+    @Test
+    @DirtiesContext
+    void failedPublishShouldBeRedeliveredOnNextPoll() {
+        record(1, 2, 3);
+        subscriber.failures = 1;
+
+        assertThrows(IllegalStateException.class, () -> outboxPoller.poll());
+        assertEquals(3, outboxSize());
+
+        outboxPoller.poll();
+        assertEquals(List.of("EVENT 1 CREATED", "EVENT 2 CREATED", "EVENT 3 CREATED"), subscriber.changes());
+        assertEquals(0, outboxSize());
+    }
+
+    @Test
+    @DirtiesContext
+    void pollShouldSkipWhileAnotherPollerHoldsOutbox() throws InterruptedException {
+        record(1, 2);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread otherPoller = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> {
+                    jdbcTemplate.queryForList("SELECT outbox_id FROM outbox ORDER BY outbox_id FOR UPDATE");
+                    locked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        otherPoller.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        outboxPoller.poll();
+
+        assertEquals(List.of(), subscriber.changes());
+        release.countDown();
+        otherPoller.join();
+        outboxPoller.poll();
+        assertEquals(List.of("EVENT 1 CREATED", "EVENT 2 CREATED"), subscriber.changes());
+    }
+
+    private void record(Integer... eventIds) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> changeOutbox.recordEvents(List.of(eventIds), ChangeType.CREATED));
+    }
+
+    private int outboxSize() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM outbox", Integer.class);
+    }
+
+    @TestConfiguration
+    static class SubscriberConfig {
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    static class RecordingSubscriber implements ChangeSubscriber {
+        private final List<List<ChangeRecord>> batches = new CopyOnWriteArrayList<>();
+        private volatile int failures;
+
+        @Override
+        public void onChanges(List<ChangeRecord> changes) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("Subscriber is unavailable");
+            }
+            batches.add(changes);
+        }
+
+        List<String> changes() {
+            return batches.stream()
+                    .flatMap(List::stream)
+                    .map(change -> change.getAggregate() + " " + change.getAggregateId() + " " + change.getType())
+                    .collect(Collectors.toList());
+        }
+
+        List<Integer> batchSizes() {
+            return batches.stream().map(List::size).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.ewm;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.config.ReadOnlyRoutingDataSource;
+import ru.practicum.ewm.dto.NewUserRequest;
+import ru.practicum.ewm.dto.UserDto;
+import ru.practicum.ewm.service.UserService;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("replica")
+@SpringBootTest
+class ReplicaRoutingIntegrationTest {
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void readOnlyTransactionShouldUseReplica() {
+        int[] active = activeConnections(true);
+
+        assertEquals(1, active[1]);
+    }
+
+    @Test
+    void readWriteTransactionShouldUsePrimary() {
+        int[] active = activeConnections(false);
+
+        assertTrue(active[0] >= 1);
+        assertEquals(0, active[1]);
+    }
+
+    @Test
+    void poolsShouldBeBoundToHikariSettings() {
+        Map<Object, DataSource> pools = pools();
+        HikariDataSource primary = (HikariDataSource) pools.get(ReadOnlyRoutingDataSource.PRIMARY);
+        HikariDataSource replica = (HikariDataSource) pools.get(ReadOnlyRoutingDataSource.REPLICA);
+
+        assertEquals(6, primary.getMaximumPoolSize());
+        assertEquals(2500, primary.getConnectionTimeout());
+        assertEquals(2, replica.getMaximumPoolSize());
+        assertEquals(2500, replica.getConnectionTimeout());
+        assertTrue(replica.isReadOnly());
+    }
+
+    @Test
+    void readOnlyServiceMethodShouldSeeRowsWrittenThroughPrimary() {
+        NewUserRequest user = new NewUserRequest();
+        user.setName("replica");
+        user.setEmail("replica@mail.ru");
+        int userId = userService.saveUser(user).getId();
+
+        List<UserDto> users = new ArrayList<>();
+        userService.getUsers(List.of(userId), 0, 10, users::add);
+
+        assertEquals(1, users.size());
+    }
+
+    /**
+     * Returns the active connections of the primary and the replica pool while a transaction holds one.
+     */
+    private int[] activeConnections(boolean readOnly) {
+        Map<Object, DataSource> pools = pools();
+        HikariDataSource primary = (HikariDataSource) pools.get(ReadOnlyRoutingDataSource.PRIMARY);
+        HikariDataSource replica = (HikariDataSource) pools.get(ReadOnlyRoutingDataSource.REPLICA);
+        assertEquals("ewm-primary", primary.getPoolName());
+        assertEquals("ewm-replica", replica.getPoolName());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            connection.getMetaData();
+            return new int[]{active(primary), active(replica)};
+        }));
+    }
+
+    private Map<Object, DataSource> pools() {
+        return ((ReadOnlyRoutingDataSource) ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource())
+                .getResolvedDataSources();
+    }
+
+    private static int active(HikariDataSource pool) {
+        return pool.getHikariPoolMXBean() == null ? 0 : pool.getHikariPoolMXBean().getActiveConnections();
+    }
+}
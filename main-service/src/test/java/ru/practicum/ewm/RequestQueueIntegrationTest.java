@@ -0,0 +1,106 @@
+package ru.practicum.ewm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.ewm.dto.*;
+import ru.practicum.ewm.model.Status;
+import ru.practicum.ewm.model.User;
+import ru.practicum.ewm.repository.JpaEventsRepository;
+import ru.practicum.ewm.repository.JpaUsersRepository;
+import ru.practicum.ewm.service.RequestService;
+import ru.practicum.ewm.service.UserService;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "ewm.requests.auto-promotion.enabled=true")
+@Import(EventFixtures.class)
+class RequestQueueIntegrationTest {
+    private static final int LIMIT = 5;
+    private static final int REQUESTS = 8;
+
+    @Autowired
+    private EventFixtures fixtures;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private JpaEventsRepository eventsRepository;
+    @Autowired
+    private JpaUsersRepository usersRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int initiatorId;
+    private int eventId;
+
+    @BeforeEach
+    void setUp() {
+        initiatorId = fixtures.saveUser("initiator");
+        eventId = fixtures.savePublishedEvent(initiatorId, LIMIT);
+    }
+
+    @Test
+    @DirtiesContext
+    void cancelOfConfirmedRequestShouldPromoteOldestPending() {
+        List<Integer> requestIds = fixtures.saveRequests(eventId, REQUESTS);
+        EventRequestStatusUpdateRequest request = new EventRequestStatusUpdateRequest();
+        request.setRequestIds(requestIds.subList(0, LIMIT));
+        request.setStatus(Status.CONFIRMED);
+        EventRequestStatusUpdateResult result = requestService.confirmedOrRejectedRequests(initiatorId, eventId,
+                request);
+        assertEquals(0, result.getRejectedRequests().size());
+        ParticipationRequestDto canceled = statuses().get(requestIds.get(0));
+
+        requestService.cancelRequest(canceled.getRequester(), canceled.getId());
+
+        Map<Integer, ParticipationRequestDto> requests = statuses();
+        assertEquals(Status.CANCELED.name(), requests.get(requestIds.get(0)).getStatus());
+        assertEquals(Status.CONFIRMED.name(), requests.get(requestIds.get(LIMIT)).getStatus());
+        assertEquals(Status.PENDING.name(), requests.get(requestIds.get(LIMIT + 1)).getStatus());
+        assertEquals(Status.PENDING.name(), requests.get(requestIds.get(LIMIT + 2)).getStatus());
+        long confirmed = requests.values().stream()
+                .filter(r -> r.getStatus().equals(Status.CONFIRMED.name()))
+                .count();
+        assertEquals(LIMIT, confirmed);
+        assertEquals(LIMIT, eventsRepository.findLimitById(eventId).orElseThrow().getConfirmedRequests());
+    }
+
+    @Test
+    @DirtiesContext
+    void removeUserShouldSubtractCountersWithoutEvictingSecondLevelCache() {
+        List<Integer> requestIds = fixtures.saveRequests(eventId, REQUESTS);
+        EventRequestStatusUpdateRequest request = new EventRequestStatusUpdateRequest();
+        request.setRequestIds(requestIds.subList(0, 2));
+        request.setStatus(Status.CONFIRMED);
+        requestService.confirmedOrRejectedRequests(initiatorId, eventId, request);
+        ParticipationRequestDto confirmed = statuses().get(requestIds.get(0));
+        usersRepository.findById(initiatorId);
+        Cache cache = entityManagerFactory.getCache();
+        assertTrue(cache.contains(User.class, initiatorId));
+
+        userService.removeUser(confirmed.getRequester());
+
+        assertTrue(cache.contains(User.class, initiatorId));
+        assertEquals(1, eventsRepository.findLimitById(eventId).orElseThrow().getConfirmedRequests());
+    }
+
+    private Map<Integer, ParticipationRequestDto> statuses() {
+        List<ParticipationRequestDto> requests = new ArrayList<>();
+        requestService.getRequestsToEvent(initiatorId, eventId, requests::add);
+        return requests.stream().collect(Collectors.toMap(ParticipationRequestDto::getId, Function.identity()));
+    }
+}
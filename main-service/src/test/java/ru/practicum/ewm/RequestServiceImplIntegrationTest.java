@@ -0,0 +1,162 @@
+package ru.practicum.ewm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.dto.*;
+import ru.practicum.ewm.model.Event;
+import ru.practicum.ewm.model.Request;
+import ru.practicum.ewm.model.Status;
+import ru.practicum.ewm.repository.JpaEventsRepository;
+import ru.practicum.ewm.repository.JpaRequestRepository;
+import ru.practicum.ewm.repository.JpaUsersRepository;
+import ru.practicum.ewm.service.EventService;
+import ru.practicum.ewm.service.RequestService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.ewm.CountingStatementInspector")
+@Import({EventFixtures.class, JdbcBatchCounter.class})
+class RequestServiceImplIntegrationTest {
+    private static final int REQUESTS = 30;
+
+    @Autowired
+    private EventFixtures fixtures;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private JpaEventsRepository eventsRepository;
+    @Autowired
+    private JpaRequestRepository requestRepository;
+    @Autowired
+    private JpaUsersRepository usersRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int initiatorId;
+    private int eventId;
+
+    @BeforeEach
+    void setUp() {
+        initiatorId = fixtures.saveUser("initiator");
+        eventId = fixtures.savePublishedEvent(initiatorId, 100);
+    }
+
+    @Test
+    @DirtiesContext
+    void requestIdsShouldBeAllocatedInBlocks() {
+        CountingStatementInspector.clear();
+
+        fixtures.saveRequests(eventId, REQUESTS);
+
+        assertEquals(REQUESTS, CountingStatementInspector.count("insert into requests"));
+        assertTrue(CountingStatementInspector.count("select nextval") <= 2);
+    }
+
+    @Test
+    @DirtiesContext
+    void confirmedOrRejectedRequestsShouldUpdateWithSingleStatement() {
+        List<Integer> requestIds = fixtures.saveRequests(eventId, REQUESTS);
+        EventRequestStatusUpdateRequest request = new EventRequestStatusUpdateRequest();
+        request.setRequestIds(requestIds);
+        request.setStatus(Status.CONFIRMED);
+        CountingStatementInspector.clear();
+
+        EventRequestStatusUpdateResult result = requestService.confirmedOrRejectedRequests(initiatorId, eventId,
+                request);
+
+        assertEquals(REQUESTS, result.getConfirmedRequests().size());
+        assertEquals(0, result.getRejectedRequests().size());
+        assertEquals(1, CountingStatementInspector.count("update requests"));
+    }
+
+    @Test
+    @DirtiesContext
+    void requestInsertsOfOneTransactionShouldReachDriverAsOneJdbcBatch() {
+        List<Integer> userIds = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            userIds.add(fixtures.saveUser("requester" + i));
+        }
+        JdbcBatchCounter.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Event event = eventsRepository.getReferenceById(eventId);
+            requestRepository.saveAll(userIds.stream()
+                    .map(userId -> new Request(event, usersRepository.getReferenceById(userId)))
+                    .collect(Collectors.toList()));
+        });
+
+        assertEquals(List.of(REQUESTS), JdbcBatchCounter.batches("insert into requests"));
+    }
+
+    @Test
+    @DirtiesContext
+    void confirmedRequestsShouldRejectPendingWhenLimitIsReached() {
+        List<Integer> requestIds = fixtures.saveRequests(eventId, REQUESTS);
+        UpdateEventAdminRequest limit = new UpdateEventAdminRequest();
+        limit.setParticipantLimit(10);
+        eventService.updateEventAdmin(eventId, limit);
+        EventRequestStatusUpdateRequest request = new EventRequestStatusUpdateRequest();
+        request.setRequestIds(requestIds.subList(0, 10));
+        request.setStatus(Status.CONFIRMED);
+        CountingStatementInspector.clear();
+
+        EventRequestStatusUpdateResult result = requestService.confirmedOrRejectedRequests(initiatorId, eventId,
+                request);
+
+        assertEquals(10, result.getConfirmedRequests().size());
+        assertEquals(REQUESTS - 10, result.getRejectedRequests().size());
+        assertEquals(2, CountingStatementInspector.count("update requests"));
+        assertTrue(requestsToEvent().stream()
+                .noneMatch(r -> r.getStatus().equals(Status.PENDING.name())));
+    }
+
+    @Test
+    @DirtiesContext
+    void confirmedCounterShouldFollowConfirmationsAndCancellations() {
+        List<Integer> requestIds = fixtures.saveRequests(eventId, REQUESTS);
+        EventRequestStatusUpdateRequest request = new EventRequestStatusUpdateRequest();
+        request.setRequestIds(requestIds.subList(0, 5));
+        request.setStatus(Status.CONFIRMED);
+        requestService.confirmedOrRejectedRequests(initiatorId, eventId, request);
+        ParticipationRequestDto confirmed = requestsToEvent().get(0);
+
+        requestService.cancelRequest(confirmed.getRequester(), confirmed.getId());
+
+        assertEquals(4, eventsRepository.findLimitById(eventId).orElseThrow().getConfirmedRequests());
+    }
+
+    @Test
+    @DirtiesContext
+    void newRequestAndLimitChangeShouldNotLoadRequestsOfEvent() {
+        fixtures.saveRequests(eventId, REQUESTS);
+        int userId = fixtures.saveUser("late");
+        UpdateEventAdminRequest limit = new UpdateEventAdminRequest();
+        limit.setParticipantLimit(200);
+        CountingStatementInspector.clear();
+
+        requestService.saveRequest(userId, eventId);
+        eventService.updateEventAdmin(eventId, limit);
+
+        assertEquals(List.of(), CountingStatementInspector.containing("requests requests"));
+    }
+
+    private List<ParticipationRequestDto> requestsToEvent() {
+        List<ParticipationRequestDto> requests = new ArrayList<>();
+        requestService.getRequestsToEvent(initiatorId, eventId, requests::add);
+        return requests;
+    }
+}
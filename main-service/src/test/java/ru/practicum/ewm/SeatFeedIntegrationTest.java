@@ -0,0 +1,103 @@
+package ru.practicum.ewm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.ewm.dto.*;
+import ru.practicum.ewm.model.Status;
+import ru.practicum.ewm.service.RequestService;
+import ru.practicum.ewm.stream.EventStreamHub;
+import ru.practicum.ewm.stream.SeatFeed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "ewm.stream.seats.interval-ms=3600000")
+@Import(EventFixtures.class)
+class SeatFeedIntegrationTest {
+    private static final int LIMIT = 10;
+
+    @Autowired
+    private EventFixtures fixtures;
+    @Autowired
+    private RequestService requestService;
+    @Autowired
+    private SeatFeed seatFeed;
+    @SpyBean
+    private EventStreamHub hub;
+
+    private int initiatorId;
+    private int eventId;
+
+    @BeforeEach
+    void setUp() {
+        initiatorId = fixtures.saveUser("initiator");
+        eventId = fixtures.savePublishedEvent(initiatorId, LIMIT);
+    }
+
+    @Test
+    @DirtiesContext
+    void changesWithinOneIntervalShouldBePublishedOnceWithFinalCounters() {
+        List<Integer> requestIds = new ArrayList<>();
+        List<Integer> requesterIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int userId = fixtures.saveUser("requester" + i);
+            requesterIds.add(userId);
+            requestIds.add(requestService.saveRequest(userId, eventId).getId());
+        }
+        seatFeed.subscribe(eventId);
+        clearInvocations(hub);
+
+        confirm(requestIds.subList(0, 3));
+        confirm(requestIds.subList(3, 5));
+        requestService.cancelRequest(requesterIds.get(0), requestIds.get(0));
+        confirm(requestIds.subList(5, 6));
+        requestService.cancelRequest(requesterIds.get(1), requestIds.get(1));
+
+        verify(hub, never()).publish(anyString(), anyString(), any(), any());
+        seatFeed.flush();
+        verify(hub).publish(eq("seats:" + eventId), eq(SeatFeed.SEATS), isNull(),
+                eq(new SeatAvailabilityDto(eventId, LIMIT, 4, LIMIT - 4)));
+        seatFeed.flush();
+        verify(hub).publish(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    @DirtiesContext
+    void changeCommittedBeforeRegistrationShouldBePublishedOnNextFlush() {
+        int userId = fixtures.saveUser("requester");
+        int requestId = requestService.saveRequest(userId, eventId).getId();
+        doAnswer(invocation -> {
+            confirm(List.of(requestId));
+            return invocation.callRealMethod();
+        }).when(hub).subscribe(anyString(), anyString(), any(), any());
+
+        seatFeed.subscribe(eventId);
+        verify(hub).subscribe(eq("seats:" + eventId), eq(SeatFeed.SEATS), isNull(),
+                eq(new SeatAvailabilityDto(eventId, LIMIT, 0, LIMIT)));
+
+        seatFeed.flush();
+        verify(hub).publish(eq("seats:" + eventId), eq(SeatFeed.SEATS), isNull(),
+                eq(new SeatAvailabilityDto(eventId, LIMIT, 1, LIMIT - 1)));
+    }
+
+    private void confirm(List<Integer> requestIds) {
+        EventRequestStatusUpdateRequest request = new EventRequestStatusUpdateRequest();
+        request.setRequestIds(requestIds);
+        request.setStatus(Status.CONFIRMED);
+        requestService.confirmedOrRejectedRequests(initiatorId, eventId, request);
+    }
+}
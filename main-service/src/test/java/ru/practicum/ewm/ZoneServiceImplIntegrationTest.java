@@ -0,0 +1,79 @@
+package ru.practicum.ewm;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.dto.NewEventDto;
+import ru.practicum.ewm.dto.NewZoneDto;
+import ru.practicum.ewm.service.EventService;
+import ru.practicum.ewm.service.ZoneService;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Import(EventFixtures.class)
+class ZoneServiceImplIntegrationTest {
+    @Autowired
+    private EventFixtures fixtures;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private ZoneService zoneService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DirtiesContext
+    void eventSavedWhileZoneIsCreatedShouldBecomeMember() throws InterruptedException {
+        int userId = fixtures.saveUser("initiator");
+        NewEventDto newEvent = fixtures.newEvent(0, false);
+        AtomicInteger zoneId = new AtomicInteger();
+        AtomicInteger eventId = new AtomicInteger();
+        CountDownLatch zoneSaved = new CountDownLatch(1);
+        CountDownLatch commitZone = new CountDownLatch(1);
+        Thread zoneCreator = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> {
+                    zoneId.set(zoneService.saveZone(newZone()).getId());
+                    zoneSaved.countDown();
+                    try {
+                        commitZone.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        zoneCreator.start();
+        assertTrue(zoneSaved.await(5, TimeUnit.SECONDS));
+
+        Thread eventCreator = new Thread(() -> eventId.set(eventService.saveEvent(userId, newEvent).getId()));
+        eventCreator.start();
+        eventCreator.join(1000);
+        commitZone.countDown();
+        zoneCreator.join();
+        eventCreator.join();
+
+        assertEquals(List.of(zoneId.get()), jdbcTemplate.queryForList(
+                "SELECT zone_id FROM zones_events WHERE event_id = ?", Integer.class, eventId.get()));
+    }
+
+    private NewZoneDto newZone() {
+        NewZoneDto zone = new NewZoneDto();
+        zone.setName("center");
+        zone.setLat(55.75);
+        zone.setLon(37.62);
+        zone.setRadius(1.0);
+        return zone;
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.ewm.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventStreamHubTest {
+    private static final String TOPIC = "events/1";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private EventStreamHub hub;
+    private TestEmitter next;
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void publishShouldFanOutToEverySubscriberInOrder() {
+        hub = hub(8, 2, Duration.ofMinutes(1));
+        List<TestEmitter> emitters = List.of(subscribe(new TestEmitter()), subscribe(new TestEmitter()),
+                subscribe(new TestEmitter()));
+
+        hub.publish(TOPIC, "seats", "1", Map.of("n", 1));
+        hub.publish(TOPIC, "seats", "2", Map.of("n", 2));
+
+        for (TestEmitter emitter : emitters) {
+            await(() -> emitter.sent.size() == 2);
+            assertEquals(List.of("{\"n\":1}", "{\"n\":2}"), emitter.sent);
+        }
+        assertEquals(3, registry.get("ewm.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void fullBufferShouldEvictOnlyThatSubscriber() throws InterruptedException {
+        hub = hub(2, 2, Duration.ofHours(1));
+        TestEmitter slow = subscribe(new TestEmitter(new CountDownLatch(1)));
+        hub.publish(TOPIC, "seats", "1", Map.of("n", 1));
+        assertTrue(slow.writing.await(5, TimeUnit.SECONDS));
+        TestEmitter fast = subscribe(new TestEmitter());
+
+        for (int n = 2; n <= 4; n++) {
+            hub.publish(TOPIC, "seats", String.valueOf(n), Map.of("n", n));
+            int received = n - 1;
+            await(() -> fast.sent.size() == received);
+        }
+
+        assertEquals(1, registry.get("ewm.stream.evicted").functionCounter().count());
+        assertEquals(1, registry.get("ewm.stream.subscribers").gauge().value());
+        assertFalse(slow.completed);
+        slow.release.countDown();
+        await(() -> slow.completed);
+        assertEquals(List.of("{\"n\":1}"), slow.sent);
+    }
+
+    @Test
+    void stalledWriteShouldEvictSubscriberWithoutHoldingBackOthers() throws InterruptedException {
+        hub = hub(64, 1, Duration.ofMillis(200));
+        TestEmitter slow = subscribe(new TestEmitter(new CountDownLatch(1)));
+        hub.publish(TOPIC, "seats", "1", Map.of("n", 1));
+        assertTrue(slow.writing.await(5, TimeUnit.SECONDS));
+        TestEmitter fast = subscribe(new TestEmitter());
+
+        hub.publish(TOPIC, "seats", "2", Map.of("n", 2));
+
+        await(() -> fast.sent.size() == 1);
+        assertEquals(1, registry.get("ewm.stream.evicted").functionCounter().count());
+        assertEquals(1, registry.get("ewm.stream.subscribers").gauge().value());
+        slow.release.countDown();
+        await(() -> slow.completed);
+        assertEquals(List.of("{\"n\":1}"), slow.sent);
+        hub.publish(TOPIC, "seats", "3", Map.of("n", 3));
+        await(() -> fast.sent.size() == 2);
+    }
+
+    private EventStreamHub hub(int bufferSize, int senderThreads, Duration writeTimeout) {
+        EventStreamHub created = new EventStreamHub(new ObjectMapper(), bufferSize, Duration.ofMinutes(30),
+                Duration.ofHours(1), senderThreads, writeTimeout, timeout -> next);
+        created.bindTo(registry);
+        return created;
+    }
+
+    private TestEmitter subscribe(TestEmitter emitter) {
+        next = emitter;
+        hub.subscribe(TOPIC);
+        return emitter;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in 5 seconds");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Records the data of every event and, like a servlet write to a client that stopped reading, can block
+     * while holding the emitter's lock.
+     */
+    private static class TestEmitter extends SseEmitter {
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile boolean completed;
+
+        private TestEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        private TestEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            sent.add(builder.build().stream()
+                    .filter(data -> MediaType.APPLICATION_JSON.equals(data.getMediaType()))
+                    .map(data -> data.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.ewm.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoHashTest {
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    @Test
+    void encodeShouldMatchKnownHashes() {
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("ezs42", GeoHash.encode(42.6, -5.6, 5));
+        assertEquals("s00000000000", GeoHash.encode(0, 0, GeoHash.PRECISION));
+        assertEquals("zzzzzzzzzzzz", GeoHash.encode(90, 180, GeoHash.PRECISION));
+        assertEquals("000000000000", GeoHash.encode(-90, -180, GeoHash.PRECISION));
+    }
+
+    @Test
+    void coverShouldUseFullPrecisionForTinyRadius() {
+        Set<String> cells = GeoHash.cover(55.7558, 37.6173, 0.00001);
+
+        assertTrue(cells.stream().allMatch(cell -> cell.length() == GeoHash.PRECISION));
+        assertTrue(cells.contains(GeoHash.encode(55.7558, 37.6173, GeoHash.PRECISION)));
+        assertEquals(Set.of(GeoHash.encode(55.7558, 37.6173, GeoHash.PRECISION)),
+                GeoHash.cover(55.7558, 37.6173, 0));
+    }
+
+    @Test
+    void coverShouldUseCoarserCellsForRadiusLargerThanCell() {
+        Set<String> small = GeoHash.cover(55.7558, 37.6173, 1);
+        Set<String> large = GeoHash.cover(55.7558, 37.6173, 500);
+
+        assertTrue(large.size() <= 9);
+        assertTrue(large.iterator().next().length() < small.iterator().next().length());
+        assertCovers(55.7558, 37.6173, 500);
+    }
+
+    @Test
+    void coverShouldFallBackToWholeIndexForHugeRadius() {
+        assertEquals(Set.of(""), GeoHash.cover(0, 0, 20000));
+    }
+
+    @Test
+    void coverShouldWrapAroundAntimeridian() {
+        Set<String> cells = GeoHash.cover(-17.7134, 179.99, 20);
+
+        assertTrue(cells.stream().anyMatch(cell -> cell.startsWith("r")));
+        assertTrue(cells.stream().anyMatch(cell -> cell.startsWith("2")));
+        assertCovers(-17.7134, 179.99, 20);
+        assertCovers(64.8, -179.95, 50);
+    }
+
+    @Test
+    void coverShouldHandlePoles() {
+        assertEquals(Set.of(""), GeoHash.cover(89.99, 0, 10));
+        assertCovers(89.99, 0, 10);
+        assertCovers(-89.5, 120, 10);
+        assertCovers(80, 45, 100);
+    }
+
+    @Test
+    void coverShouldContainEveryPointWithinRadius() {
+        double[][] centers = {{0, 0}, {55.7558, 37.6173}, {-33.8688, 151.2093}, {40.7128, -74.006}, {70, -20}};
+        double[] radii = {0.05, 1, 7.5, 42, 300};
+        for (double[] center : centers) {
+            for (double radius : radii) {
+                assertCovers(center[0], center[1], radius);
+            }
+        }
+    }
+
+    @Test
+    void coverShouldReachCellBoundaryAtExactRadius() {
+        double lat = -4 / 111.32 - 0.000001;
+        double[] north = destination(lat, 30, 4, 0);
+
+        assertTrue(north[0] > 0);
+        assertCovers(lat, 30, 4);
+    }
+
+    private static void assertCovers(double lat, double lon, double radiusKm) {
+        Set<String> cells = GeoHash.cover(lat, lon, radiusKm);
+        for (double fraction : new double[]{0, 0.5, 1}) {
+            for (int bearing = 0; bearing < 360; bearing += 5) {
+                double[] point = destination(lat, lon, radiusKm * fraction, bearing);
+                String hash = GeoHash.encode(point[0], point[1], GeoHash.PRECISION);
+                assertTrue(cells.stream().anyMatch(hash::startsWith),
+                        () -> "Point " + point[0] + "," + point[1] + " (" + hash + ") within " + radiusKm
+                                + " km of " + lat + "," + lon + " is outside " + cells);
+            }
+        }
+    }
+
+    private static double[] destination(double lat, double lon, double distanceKm, double bearingDeg) {
+        double phi = Math.toRadians(lat);
+        double lambda = Math.toRadians(lon);
+        double delta = distanceKm / EARTH_RADIUS_KM;
+        double theta = Math.toRadians(bearingDeg);
+        double phi2 = Math.asin(Math.sin(phi) * Math.cos(delta) + Math.cos(phi) * Math.sin(delta) * Math.cos(theta));
+        double lambda2 = lambda + Math.atan2(Math.sin(theta) * Math.sin(delta) * Math.cos(phi),
+                Math.cos(delta) - Math.sin(phi) * Math.sin(phi2));
+        double lon2 = (Math.toDegrees(lambda2) + 540) % 360 - 180;
+        return new double[]{Math.toDegrees(phi2), lon2};
+    }
+}
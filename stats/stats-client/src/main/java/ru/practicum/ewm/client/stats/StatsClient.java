@@ -12,6 +12,7 @@ import ru.practicum.ewm.dto.stats.EndpointHit;
 import ru.practicum.ewm.dto.stats.ViewStats;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class StatsClient {
@@ -29,11 +30,29 @@ public class StatsClient {
                 .bodyToMono(String.class).block();
     }
 
+    public CompletableFuture<Void> saveHitAsync(EndpointHit hit) {
+        return client.post()
+                .uri("/hit")
+                .bodyValue(hit)
+                .retrieve()
+                .bodyToMono(Void.class)
+                .toFuture();
+    }
+
     public List<ViewStats> getStats(@RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") String start,
                                     @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") String end,
                                     @RequestParam(required = false) List<String> uris,
                                     @RequestParam(defaultValue = "false") boolean unique) {
-        Mono<List<ViewStats>> response = client.get()
+        return stats(start, end, uris, unique).block();
+    }
+
+    public CompletableFuture<List<ViewStats>> getStatsAsync(String start, String end, List<String> uris,
+                                                            boolean unique) {
+        return stats(start, end, uris, unique).toFuture();
+    }
+
+    private Mono<List<ViewStats>> stats(String start, String end, List<String> uris, boolean unique) {
+        return client.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/stats")
                         .queryParam("start", start)
@@ -45,6 +64,5 @@ public class StatsClient {
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<List<ViewStats>>() {
                 });
-        return response.block();
     }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package ru.practicum.ewm.stats.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.ewm.dto.stats.ViewStats;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache of /stats responses keyed by the normalized query: sorted uri set, unique flag and start/end
+ * rounded down to a time bucket.
+ * <p>
+ * Every ingest takes the next number of one sequence and records it as the version of its uri; an entry remembers
+ * the sequence at load time and is outdated once one of its uris has a newer version, so a hit for one uri only
+ * invalidates the entries that can contain it. Outdated entries are always reloaded; stale-while-revalidate only
+ * covers entries past their ttl. A uri version is dropped once it is older than every entry that can still be
+ * served, and the entries themselves are bounded by size.
+ */
+@Component
+public class StatsCache implements MeterBinder {
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final long bucketSeconds;
+
+    private final Cache<Key, Entry> entries;
+    private final Cache<String, Long> uriVersions;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final ExecutorService refresher;
+
+    public StatsCache(@Value("${stats.cache.enabled:true}") boolean enabled,
+                      @Value("${stats.cache.ttl:10s}") Duration ttl,
+                      @Value("${stats.cache.stale-while-revalidate:0s}") Duration staleWhileRevalidate,
+                      @Value("${stats.cache.max-size:10000}") int maxSize,
+                      @Value("${stats.cache.bucket:1m}") Duration bucket) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.staleNanos = staleWhileRevalidate.toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl.plus(staleWhileRevalidate))
+                .build();
+        this.uriVersions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl.plus(staleWhileRevalidate))
+                .build();
+        this.bucketSeconds = Math.max(1, bucket.getSeconds());
+        this.refresher = staleNanos > 0 ? Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "stats-cache-refresher");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public List<ViewStats> get(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique,
+                               Supplier<List<ViewStats>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(bucket(start), bucket(end), uris == null ? null : new TreeSet<>(uris), unique);
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && entry.version >= version(key.uris)) {
+            long age = System.nanoTime() - entry.loadedAt;
+            if (age <= ttlNanos) {
+                hits.increment();
+                return entry.value;
+            }
+            if (age <= ttlNanos + staleNanos && refresher != null) {
+                hits.increment();
+                if (entry.refreshing.compareAndSet(false, true)) {
+                    refresher.execute(() -> load(key, loader));
+                }
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return load(key, loader);
+    }
+
+    public void invalidate(String uri) {
+        uriVersions.asMap().merge(uri, sequence.incrementAndGet(), Math::max);
+    }
+
+    public double hitRatio() {
+        long total = hits.sum() + misses.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("stats.cache.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("stats.cache.misses", misses, LongAdder::sum).register(registry);
+        Gauge.builder("stats.cache.hit.ratio", this, StatsCache::hitRatio).register(registry);
+        Gauge.builder("stats.cache.size", entries, Cache::estimatedSize).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private List<ViewStats> load(Key key, Supplier<List<ViewStats>> loader) {
+        long loadedAt = System.nanoTime();
+        long version = sequence.get();
+        try {
+            List<ViewStats> value = List.copyOf(loader.get());
+            entries.put(key, new Entry(value, version, loadedAt));
+            return value;
+        } catch (RuntimeException e) {
+            Entry entry = entries.getIfPresent(key);
+            if (entry != null) {
+                entry.refreshing.set(false);
+            }
+            throw e;
+        }
+    }
+
+    private long version(Set<String> uris) {
+        if (uris == null) {
+            return sequence.get();
+        }
+        long version = 0;
+        for (String uri : uris) {
+            Long uriVersion = uriVersions.getIfPresent(uri);
+            if (uriVersion != null) {
+                version = Math.max(version, uriVersion);
+            }
+        }
+        return version;
+    }
+
+    private long bucket(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        return Math.floorDiv(seconds, bucketSeconds);
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final long start;
+        private final long end;
+        private final Set<String> uris;
+        private final boolean unique;
+
+        private Key(long start, long end, Set<String> uris, boolean unique) {
+            this.start = start;
+            this.end = end;
+            this.uris = uris;
+            this.unique = unique;
+        }
+    }
+
+    private static final class Entry {
+        private final List<ViewStats> value;
+        private final long version;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(List<ViewStats> value, long version, long loadedAt) {
+            this.value = value;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.ewm.stats.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.ewm.dto.stats.EndpointHit;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.stats.service.ReactiveStatsService;
+
+import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveStatsController {
+    private final ReactiveStatsService service;
+
+    @PostMapping(value = "/hit")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Void> saveHit(@RequestBody @Valid EndpointHit endpointHit) {
+        log.info("Save hit: {}", endpointHit);
+        return service.save(endpointHit);
+    }
+
+    @PostMapping(value = "/hit/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Void> saveHits(@RequestBody Flux<EndpointHit> endpointHits) {
+        log.info("Save hits batch");
+        return service.saveAll(endpointHits);
+    }
+
+    @GetMapping(value = "/stats")
+    public Flux<ViewStats> getStats(@RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+                                    @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime end,
+                                    @RequestParam(required = false) List<String> uris,
+                                    @RequestParam(defaultValue = "false") boolean unique) {
+        log.info("Get stats: start = {}, end = {}, uris = {}, unique = {}", start, end,
+                uris, unique);
+        return service.get(start, end, uris, unique);
+    }
+}
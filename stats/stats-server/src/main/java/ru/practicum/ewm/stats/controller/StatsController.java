@@ -2,6 +2,7 @@ package ru.practicum.ewm.stats.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +16,7 @@ import java.util.List;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class StatsController {
     private final StatsService service;
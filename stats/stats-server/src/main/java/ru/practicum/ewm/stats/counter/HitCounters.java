@@ -0,0 +1,273 @@
+package ru.practicum.ewm.stats.counter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.stats.model.HitCounter;
+import ru.practicum.ewm.stats.model.HitCounterId;
+import ru.practicum.ewm.stats.model.Stats;
+import ru.practicum.ewm.stats.repository.JpaHitCounterRepository;
+import ru.practicum.ewm.stats.repository.JpaStatsRepository;
+
+import java.time.Duration;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory hit counters per uri, app and time bucket, plus the last hit time of every ip, used to answer /stats
+ * queries for recent windows that end now without scanning the stats table.
+ * <p>
+ * Non-unique queries sum the buckets after the start; when the start is not on a bucket boundary, the hits of the
+ * partial first bucket are read from the stats table. Unique queries count the ips last seen at or after the
+ * start, which is exact when the start is at or after the first second of the retention horizon, since ips last
+ * seen before it are pruned.
+ * <p>
+ * Dirty buckets are checkpointed to stats_counters periodically. On startup the checkpoint is reloaded and the
+ * raw hits of the retention horizon are replayed for the ips, and from the last checkpointed bucket on for the
+ * counters, so only hits ingested after the last checkpoint into older buckets can be lost on a crash.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class HitCounters implements SmartInitializingSingleton {
+    private final JpaHitCounterRepository counterRepository;
+    private final JpaStatsRepository statsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long bucketSeconds;
+    private final Duration retention;
+    private final Duration endTolerance;
+
+    private final Map<String, Map<String, Map<Long, Cell>>> counters = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Map<String, Long>>> lastSeen = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public HitCounters(JpaHitCounterRepository counterRepository,
+                       JpaStatsRepository statsRepository,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${stats.counters.enabled:true}") boolean enabled,
+                       @Value("${stats.counters.bucket:1m}") Duration bucket,
+                       @Value("${stats.counters.retention:1d}") Duration retention,
+                       @Value("${stats.counters.end-tolerance:5s}") Duration endTolerance) {
+        this.counterRepository = counterRepository;
+        this.statsRepository = statsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.bucketSeconds = Math.max(1, bucket.getSeconds());
+        this.retention = retention;
+        this.endTolerance = endTolerance;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        long horizon = horizon();
+        transactionTemplate.executeWithoutResult(status -> {
+            long replayFrom = counterRepository.findLastBucket()
+                    .map(this::bucket)
+                    .filter(last -> last > horizon)
+                    .orElse(horizon);
+            counterRepository.findByBucketBetween(toTime(horizon), toTime(replayFrom))
+                    .forEach(c -> cell(c.getId().getApp(), c.getId().getUri(), bucket(c.getId().getBucket()))
+                            .hits.add(c.getHits()));
+            try (Stream<Stats> hits = statsRepository.streamByTimestampFrom(toTime(horizon))) {
+                hits.forEach(s -> {
+                    seen(s.getApp(), s.getUri(), s.getIp(), s.getTimestamp());
+                    long bucket = bucket(s.getTimestamp());
+                    if (bucket >= replayFrom) {
+                        Cell cell = cell(s.getApp(), s.getUri(), bucket);
+                        cell.hits.increment();
+                        cell.dirty = true;
+                    }
+                });
+            }
+        });
+        loaded = true;
+        log.info("Hit counters loaded for {} uris", counters.size());
+    }
+
+    public void increment(String app, String uri, String ip, LocalDateTime timestamp) {
+        if (!enabled) {
+            return;
+        }
+        long bucket = bucket(timestamp);
+        if (bucket < horizon()) {
+            return;
+        }
+        seen(app, uri, ip, timestamp);
+        Cell cell = cell(app, uri, bucket);
+        cell.hits.increment();
+        cell.dirty = true;
+    }
+
+    /**
+     * Answers a query from memory when the window starts inside the retention horizon and ends no earlier than
+     * end-tolerance before now, otherwise returns an empty optional. Clients format the end as the current time
+     * truncated to seconds, so the tolerance admits it; hits ingested between the end and now are counted.
+     */
+    public Optional<List<ViewStats>> get(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
+        if (!loaded || end.isBefore(LocalDateTime.now().minus(endTolerance))) {
+            return Optional.empty();
+        }
+        boolean aligned = start.getNano() == 0 && start.toEpochSecond(ZoneOffset.UTC) % bucketSeconds == 0;
+        long firstBucket = aligned ? bucket(start) : bucket(start) + 1;
+        long horizon = horizon();
+        if (firstBucket < horizon || unique && bucket(start) < horizon) {
+            return Optional.empty();
+        }
+        Map<String, Map<String, Long>> hits = unique ? uniqueHits(start, uris) : bucketHits(firstBucket, uris);
+        if (!unique && !aligned) {
+            LocalDateTime partialEnd = toTime(firstBucket).minusNanos(1);
+            List<Stats> partial = uris == null ? statsRepository.findByNotUri(start, partialEnd)
+                    : statsRepository.findByUri(start, partialEnd, uris);
+            partial.forEach(s -> hits.computeIfAbsent(s.getUri(), u -> new HashMap<>())
+                    .merge(s.getApp(), (long) s.getHits(), Long::sum));
+        }
+        List<ViewStats> stats = new ArrayList<>();
+        hits.forEach((uri, apps) -> apps.forEach((app, count) -> {
+            if (count > 0) {
+                stats.add(new ViewStats(app, uri, count.intValue()));
+            }
+        }));
+        stats.sort(Comparator.comparing(ViewStats::getHits).reversed());
+        return Optional.of(stats);
+    }
+
+    /**
+     * Writes the dirty buckets with one batched UPDATE and one batched INSERT for the buckets the update did not
+     * find, instead of a select per row.
+     */
+    @Scheduled(fixedDelayString = "${stats.counters.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        if (!loaded) {
+            return;
+        }
+        long horizon = horizon();
+        long horizonSecond = toTime(horizon).toEpochSecond(ZoneOffset.UTC);
+        lastSeen.values().forEach(apps -> apps.values()
+                .forEach(ips -> ips.values().removeIf(second -> second < horizonSecond)));
+        List<HitCounter> dirty = new ArrayList<>();
+        counters.forEach((uri, apps) -> apps.forEach((app, buckets) -> {
+            buckets.keySet().removeIf(bucket -> bucket < horizon);
+            buckets.forEach((bucket, cell) -> {
+                if (cell.dirty) {
+                    cell.dirty = false;
+                    dirty.add(new HitCounter(new HitCounterId(app, uri, toTime(bucket)), cell.hits.sum()));
+                }
+            });
+        }));
+        transactionTemplate.executeWithoutResult(status -> {
+            upsert(dirty);
+            counterRepository.deleteByBucketBefore(toTime(horizon));
+        });
+        log.debug("Checkpointed {} hit counters", dirty.size());
+    }
+
+    private void upsert(List<HitCounter> dirty) {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE stats_counters SET hits = ? " +
+                "WHERE app = ? AND uri = ? AND bucket = ?", dirty.stream()
+                .map(c -> new Object[]{c.getHits(), c.getId().getApp(), c.getId().getUri(),
+                        Timestamp.valueOf(c.getId().getBucket())})
+                .collect(Collectors.toList()));
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < dirty.size(); i++) {
+            if (updated[i] == 0) {
+                HitCounter c = dirty.get(i);
+                inserts.add(new Object[]{c.getId().getApp(), c.getId().getUri(),
+                        Timestamp.valueOf(c.getId().getBucket()), c.getHits()});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO stats_counters (app, uri, bucket, hits) VALUES (?, ?, ?, ?)",
+                    inserts);
+        }
+    }
+
+    private Map<String, Map<String, Long>> bucketHits(long firstBucket, List<String> uris) {
+        Collection<String> selected = uris == null ? counters.keySet() : new HashSet<>(uris);
+        Map<String, Map<String, Long>> hits = new HashMap<>();
+        for (String uri : selected) {
+            Map<String, Map<Long, Cell>> apps = counters.get(uri);
+            if (apps == null) {
+                continue;
+            }
+            apps.forEach((app, buckets) -> {
+                long sum = 0;
+                for (Map.Entry<Long, Cell> entry : buckets.entrySet()) {
+                    if (entry.getKey() >= firstBucket) {
+                        sum += entry.getValue().hits.sum();
+                    }
+                }
+                hits.computeIfAbsent(uri, u -> new HashMap<>()).put(app, sum);
+            });
+        }
+        return hits;
+    }
+
+    private Map<String, Map<String, Long>> uniqueHits(LocalDateTime start, List<String> uris) {
+        long startSecond = start.toEpochSecond(ZoneOffset.UTC);
+        long from = start.getNano() == 0 ? startSecond : startSecond + 1;
+        Collection<String> selected = uris == null ? lastSeen.keySet() : new HashSet<>(uris);
+        Map<String, Map<String, Long>> hits = new HashMap<>();
+        for (String uri : selected) {
+            Map<String, Map<String, Long>> apps = lastSeen.get(uri);
+            if (apps == null) {
+                continue;
+            }
+            apps.forEach((app, ips) -> hits.computeIfAbsent(uri, u -> new HashMap<>())
+                    .put(app, ips.values().stream().filter(second -> second >= from).count()));
+        }
+        return hits;
+    }
+
+    private void seen(String app, String uri, String ip, LocalDateTime timestamp) {
+        long second = timestamp.toEpochSecond(ZoneOffset.UTC);
+        lastSeen.computeIfAbsent(uri, u -> new ConcurrentHashMap<>())
+                .computeIfAbsent(app, a -> new ConcurrentHashMap<>())
+                .merge(ip, second, Math::max);
+    }
+
+    private Cell cell(String app, String uri, long bucket) {
+        return counters.computeIfAbsent(uri, u -> new ConcurrentHashMap<>())
+                .computeIfAbsent(app, a -> new ConcurrentHashMap<>())
+                .computeIfAbsent(bucket, b -> new Cell());
+    }
+
+    private long horizon() {
+        return bucket(LocalDateTime.now().minus(retention)) + 1;
+    }
+
+    private long bucket(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+
+    private LocalDateTime toTime(long bucket) {
+        return LocalDateTime.ofEpochSecond(bucket * bucketSeconds, 0, ZoneOffset.UTC);
+    }
+
+    private static final class Cell {
+        private final LongAdder hits = new LongAdder();
+        private volatile boolean dirty;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.ewm.stats.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "stats_counters")
+public class HitCounter {
+    @EmbeddedId
+    private HitCounterId id;
+
+    private Long hits;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.ewm.stats.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class HitCounterId implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String app;
+
+    private String uri;
+
+    private LocalDateTime bucket;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.ewm.stats.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.ewm.stats.model.HitCounter;
+import ru.practicum.ewm.stats.model.HitCounterId;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface JpaHitCounterRepository extends JpaRepository<HitCounter, HitCounterId> {
+    @Query("select max(c.id.bucket) from HitCounter c")
+    Optional<LocalDateTime> findLastBucket();
+
+    @Query("select c from HitCounter c where c.id.bucket >= :from and c.id.bucket < :to")
+    List<HitCounter> findByBucketBetween(LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query("delete from HitCounter c where c.id.bucket < :bucket")
+    int deleteByBucketBefore(LocalDateTime bucket);
+}
@@ -7,6 +7,7 @@ import ru.practicum.ewm.stats.model.Stats;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface JpaStatsRepository extends JpaRepository<Stats, Integer> {
     @Query("select new ru.practicum.ewm.stats.model.Stats(s.app, s.uri, count(s.uri)) from Stats s " +
@@ -30,4 +31,7 @@ public interface JpaStatsRepository extends JpaRepository<Stats, Integer> {
             "group by s.uri, s.app order by count(distinct s.ip) desc")
     List<Stats> findByUriDistinct(@Param("start") LocalDateTime start,
                                   @Param("end") LocalDateTime end, List<String> uris);
+
+    @Query("select s from Stats s where s.timestamp >= :start")
+    Stream<Stats> streamByTimestampFrom(@Param("start") LocalDateTime start);
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package ru.practicum.ewm.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.stats.model.Stats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Profile("reactive")
+@Repository
+@RequiredArgsConstructor
+public class ReactiveStatsRepository {
+    private final DatabaseClient client;
+
+    public Mono<Void> saveAll(List<Stats> stats) {
+        if (stats.isEmpty()) {
+            return Mono.empty();
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO stats (app, uri, ip, timestamp) VALUES ");
+        for (int i = 0; i < stats.size(); i++) {
+            int p = i * 4;
+            sql.append(i == 0 ? "" : ", ")
+                    .append("($").append(p + 1).append(", $").append(p + 2)
+                    .append(", $").append(p + 3).append(", $").append(p + 4).append(")");
+        }
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString());
+        for (int i = 0; i < stats.size(); i++) {
+            Stats s = stats.get(i);
+            int p = i * 4;
+            spec = spec.bind(p, s.getApp())
+                    .bind(p + 1, s.getUri())
+                    .bind(p + 2, s.getIp())
+                    .bind(p + 3, s.getTimestamp());
+        }
+        return spec.then();
+    }
+
+    public Flux<ViewStats> findByNotUri(LocalDateTime start, LocalDateTime end) {
+        return client.sql("SELECT app, uri, count(uri) AS hits FROM stats " +
+                        "WHERE timestamp >= :start AND timestamp <= :end GROUP BY uri, app ORDER BY hits DESC")
+                .bind("start", start)
+                .bind("end", end)
+                .map(row -> new ViewStats(row.get("app", String.class), row.get("uri", String.class),
+                        row.get("hits", Long.class).intValue()))
+                .all();
+    }
+
+    public Flux<ViewStats> findByUri(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        return client.sql("SELECT app, uri, count(uri) AS hits FROM stats " +
+                        "WHERE timestamp >= :start AND timestamp <= :end AND uri IN (:uris) " +
+                        "GROUP BY uri, app ORDER BY hits DESC")
+                .bind("start", start)
+                .bind("end", end)
+                .bind("uris", uris)
+                .map(row -> new ViewStats(row.get("app", String.class), row.get("uri", String.class),
+                        row.get("hits", Long.class).intValue()))
+                .all();
+    }
+
+    public Flux<ViewStats> findByNotUriDistinct(LocalDateTime start, LocalDateTime end) {
+        return client.sql("SELECT app, uri, count(DISTINCT ip) AS hits FROM stats " +
+                        "WHERE timestamp >= :start AND timestamp <= :end GROUP BY uri, app ORDER BY hits DESC")
+                .bind("start", start)
+                .bind("end", end)
+                .map(row -> new ViewStats(row.get("app", String.class), row.get("uri", String.class),
+                        row.get("hits", Long.class).intValue()))
+                .all();
+    }
+
+    public Flux<ViewStats> findByUriDistinct(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        return client.sql("SELECT app, uri, count(DISTINCT ip) AS hits FROM stats " +
+                        "WHERE timestamp >= :start AND timestamp <= :end AND uri IN (:uris) " +
+                        "GROUP BY uri, app ORDER BY hits DESC")
+                .bind("start", start)
+                .bind("end", end)
+                .bind("uris", uris)
+                .map(row -> new ViewStats(row.get("app", String.class), row.get("uri", String.class),
+                        row.get("hits", Long.class).intValue()))
+                .all();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.ewm.stats.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.ewm.dto.stats.EndpointHit;
+import ru.practicum.ewm.dto.stats.ViewStats;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ReactiveStatsService {
+    Mono<Void> save(EndpointHit endpointHit);
+
+    Mono<Void> saveAll(Flux<EndpointHit> endpointHits);
+
+    Flux<ViewStats> get(LocalDateTime start, LocalDateTime end, List<String> uris, boolean isUnique);
+}
@@ -0,0 +1,89 @@
+package ru.practicum.ewm.stats.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.ewm.dto.stats.EndpointHit;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.stats.exception.BadRequestException;
+import ru.practicum.ewm.stats.mapper.StatsMapper;
+import ru.practicum.ewm.stats.model.Stats;
+import ru.practicum.ewm.stats.repository.ReactiveStatsRepository;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveStatsServiceImpl implements ReactiveStatsService {
+    private final StatsMapper mapper;
+    private final ReactiveStatsRepository repository;
+    private final Validator validator;
+    private final TransactionalOperator transactionalOperator;
+    private final int batchSize;
+
+    public ReactiveStatsServiceImpl(StatsMapper mapper, ReactiveStatsRepository repository, Validator validator,
+                                    TransactionalOperator transactionalOperator,
+                                    @Value("${stats.ingest.batch-size:500}") int batchSize) {
+        this.mapper = mapper;
+        this.repository = repository;
+        this.validator = validator;
+        this.transactionalOperator = transactionalOperator;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Mono<Void> save(EndpointHit endpointHit) {
+        return Mono.fromCallable(() -> toStats(endpointHit))
+                .flatMap(stats -> repository.saveAll(List.of(stats)));
+    }
+
+    /**
+     * Chunks are inserted as they arrive but commit together: an invalid hit or a dropped connection anywhere in
+     * the stream rolls back the chunks already written, so a batch is either stored whole or not at all.
+     */
+    @Override
+    public Mono<Void> saveAll(Flux<EndpointHit> endpointHits) {
+        return endpointHits
+                .map(this::toStats)
+                .buffer(batchSize)
+                .concatMap(repository::saveAll, 1)
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Flux<ViewStats> get(LocalDateTime start, LocalDateTime end, List<String> uris, boolean isUnique) {
+        if (start.isAfter(end)) {
+            return Flux.error(new BadRequestException("Date start after date end: " + start + " > " + end));
+        }
+        if (!isUnique) {
+            return uris == null ? repository.findByNotUri(start, end) : repository.findByUri(start, end, uris);
+        }
+        return uris == null ? repository.findByNotUriDistinct(start, end)
+                : repository.findByUriDistinct(start, end, uris);
+    }
+
+    private Stats toStats(EndpointHit endpointHit) {
+        Set<ConstraintViolation<EndpointHit>> violations = validator.validate(endpointHit);
+        if (!violations.isEmpty()) {
+            throw new ValidationException("Invalid hit " + endpointHit + ": " + violations.iterator().next()
+                    .getMessage());
+        }
+        Stats stats = mapper.toModelStats(endpointHit);
+        if (stats.getTimestamp().isAfter(LocalDateTime.now())) {
+            log.warn("Invalid date: Timestamp after to {}", LocalDateTime.now());
+            throw new ValidationException(String.format("Invalid date: Timestamp after to {}", LocalDateTime.now()));
+        }
+        return stats;
+    }
+}
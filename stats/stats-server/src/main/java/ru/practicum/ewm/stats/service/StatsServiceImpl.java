@@ -2,10 +2,15 @@ package ru.practicum.ewm.stats.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.ewm.dto.stats.EndpointHit;
 import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.stats.cache.StatsCache;
+import ru.practicum.ewm.stats.counter.HitCounters;
 import ru.practicum.ewm.stats.exception.BadRequestException;
 import ru.practicum.ewm.stats.mapper.StatsMapper;
 import ru.practicum.ewm.stats.model.Stats;
@@ -14,13 +19,17 @@ import ru.practicum.ewm.stats.repository.JpaStatsRepository;
 import javax.validation.ValidationException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class StatsServiceImpl implements StatsService {
     private final StatsMapper mapper;
     private final JpaStatsRepository repository;
+    private final StatsCache cache;
+    private final HitCounters counters;
 
     @Override
     @Transactional
@@ -31,6 +40,7 @@ public class StatsServiceImpl implements StatsService {
             throw new ValidationException(String.format("Invalid date: Timestamp after to {}", LocalDateTime.now()));
         }
         repository.save(stats);
+        afterCommit(stats);
     }
 
     @Override
@@ -38,7 +48,14 @@ public class StatsServiceImpl implements StatsService {
         if (start.isAfter(end)) {
             throw new BadRequestException("Date start after date end: " + start + " > " + end);
         }
+        Optional<List<ViewStats>> stats = counters.get(start, end, uris, isUnique);
+        if (stats.isPresent()) {
+            return stats.get();
+        }
+        return cache.get(start, end, uris, isUnique, () -> load(start, end, uris, isUnique));
+    }
 
+    private List<ViewStats> load(LocalDateTime start, LocalDateTime end, List<String> uris, boolean isUnique) {
         List<ViewStats> stats;
         if (!isUnique) {
             if (uris == null) {
@@ -55,4 +72,22 @@ public class StatsServiceImpl implements StatsService {
         }
         return stats;
     }
+
+    private void afterCommit(Stats stats) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    onSaved(stats);
+                }
+            });
+        } else {
+            onSaved(stats);
+        }
+    }
+
+    private void onSaved(Stats stats) {
+        counters.increment(stats.getApp(), stats.getUri(), stats.getIp(), stats.getTimestamp());
+        cache.invalidate(stats.getUri());
+    }
 }
\ No newline at end of file
@@ -6,4 +6,14 @@ CREATE TABLE stats (
     uri varchar(100) NOT NULL,
     ip varchar(100) NOT NULL,
     timestamp timestamp with time zone NOT NULL
-);
\ No newline at end of file
+);
+
+DROP TABLE IF EXISTS stats_counters;
+
+CREATE TABLE stats_counters (
+    app varchar(100) NOT NULL,
+    uri varchar(100) NOT NULL,
+    bucket timestamp NOT NULL,
+    hits bigint NOT NULL,
+    PRIMARY KEY (app, uri, bucket)
+);
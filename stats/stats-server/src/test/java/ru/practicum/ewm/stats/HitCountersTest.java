@@ -0,0 +1,150 @@
+package ru.practicum.ewm.stats;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.stats.counter.HitCounters;
+import ru.practicum.ewm.stats.model.HitCounter;
+import ru.practicum.ewm.stats.model.HitCounterId;
+import ru.practicum.ewm.stats.model.Stats;
+import ru.practicum.ewm.stats.repository.JpaHitCounterRepository;
+import ru.practicum.ewm.stats.repository.JpaStatsRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HitCountersTest {
+    private HitCounters counters;
+    @Mock
+    private JpaHitCounterRepository counterRepository;
+    @Mock
+    private JpaStatsRepository statsRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        counters = new HitCounters(counterRepository, statsRepository, jdbcTemplate, transactionManager, true,
+                Duration.ofMinutes(1), Duration.ofDays(1), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void getShouldSumBucketsFromStartForAlignedRecentWindow() {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+        when(counterRepository.findLastBucket()).thenReturn(Optional.of(hour.plusMinutes(30)));
+        when(counterRepository.findByBucketBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new HitCounter(new HitCounterId("ewm-main-service", "/events/1", hour), 5L)));
+        when(statsRepository.streamByTimestampFrom(any(LocalDateTime.class))).thenReturn(Stream.of(
+                new Stats(null, "ewm-main-service", "/events/1", "111.111.11.11", hour.plusMinutes(30), null)));
+        counters.afterSingletonsInstantiated();
+
+        counters.increment("ewm-main-service", "/events/2", "111.111.11.11", hour.plusMinutes(40));
+        counters.increment("ewm-main-service", "/events/1", "111.111.11.11", hour.plusMinutes(40));
+        List<ViewStats> statsAll = counters.get(hour, LocalDateTime.now().plusSeconds(1), null, false)
+                .orElseThrow();
+        List<ViewStats> statsLater = counters.get(hour.plusMinutes(35), LocalDateTime.now().plusSeconds(1),
+                List.of("/events/1"), false).orElseThrow();
+
+        assertEquals(2, statsAll.size());
+        assertEquals("/events/1", statsAll.get(0).getUri());
+        assertEquals(7, statsAll.get(0).getHits());
+        assertEquals("/events/2", statsAll.get(1).getUri());
+        assertEquals(1, statsAll.get(1).getHits());
+        assertEquals(1, statsLater.size());
+        assertEquals(1, statsLater.get(0).getHits());
+    }
+
+    @Test
+    void getShouldFallBackForUnalignedOrPastOrOldWindows() {
+        when(counterRepository.findLastBucket()).thenReturn(Optional.empty());
+        when(counterRepository.findByBucketBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(statsRepository.streamByTimestampFrom(any(LocalDateTime.class))).thenReturn(Stream.empty());
+        counters.afterSingletonsInstantiated();
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+
+        assertTrue(counters.get(hour, hour.plusMinutes(10), null, false).isEmpty());
+        assertTrue(counters.get(hour.minusDays(2), LocalDateTime.now().plusSeconds(1), null, false).isEmpty());
+        assertTrue(counters.get(LocalDateTime.now().minusYears(1000), LocalDateTime.now(), null, true).isEmpty());
+    }
+
+    @Test
+    void uniqueGetShouldFallBackForStartJustBeforeHorizon() {
+        loadEmpty();
+        LocalDateTime horizon = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+
+        assertTrue(counters.get(horizon.minusSeconds(30), LocalDateTime.now().plusSeconds(1), null, true)
+                .isEmpty());
+    }
+
+    @Test
+    void getShouldFallBackBeforeLoad() {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+
+        counters.increment("ewm-main-service", "/events/1", "111.111.11.11", hour.plusMinutes(1));
+
+        assertTrue(counters.get(hour, LocalDateTime.now().plusSeconds(1), null, false).isEmpty());
+    }
+
+    @Test
+    void getShouldAnswerWindowsAsSentByMainService() {
+        loadEmpty();
+        LocalDateTime published = LocalDateTime.now().minusHours(3).withSecond(17).withNano(0);
+        LocalDateTime firstFull = published.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        counters.increment("ewm-main-service", "/events/1", "111.111.11.11", published.plusSeconds(10));
+        counters.increment("ewm-main-service", "/events/1", "111.111.11.11", published.plusMinutes(30));
+        counters.increment("ewm-main-service", "/events/1", "222.222.22.22", published.plusMinutes(40));
+        counters.increment("ewm-main-service", "/events/1", "333.333.33.33", published.minusMinutes(1));
+        when(statsRepository.findByUri(published, firstFull.minusNanos(1), List.of("/events/1")))
+                .thenReturn(List.of(new Stats("ewm-main-service", "/events/1", 1L)));
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        LocalDateTime end = LocalDateTime.parse(LocalDateTime.now().format(formatter), formatter);
+
+        List<ViewStats> unique = counters.get(published, end, List.of("/events/1"), true).orElseThrow();
+        List<ViewStats> all = counters.get(published, end, List.of("/events/1"), false).orElseThrow();
+
+        assertEquals(2, unique.get(0).getHits());
+        assertEquals(3, all.get(0).getHits());
+        verify(statsRepository, times(1)).findByUri(any(), any(), any());
+    }
+
+    @Test
+    void checkpointShouldUpdateThenInsertMissingBucketsInBatches() {
+        loadEmpty();
+        LocalDateTime minute = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(5);
+        counters.increment("ewm-main-service", "/events/1", "111.111.11.11", minute);
+        counters.increment("ewm-main-service", "/events/2", "111.111.11.11", minute);
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE"), anyList())).thenReturn(new int[]{1, 0});
+
+        counters.checkpoint();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE"), anyList());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT"), argThat((List<Object[]> rows) -> rows.size() == 1));
+        verify(counterRepository, never()).saveAll(any());
+    }
+
+    private void loadEmpty() {
+        when(counterRepository.findLastBucket()).thenReturn(Optional.empty());
+        when(counterRepository.findByBucketBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(statsRepository.streamByTimestampFrom(any(LocalDateTime.class))).thenReturn(Stream.empty());
+        counters.afterSingletonsInstantiated();
+    }
+}
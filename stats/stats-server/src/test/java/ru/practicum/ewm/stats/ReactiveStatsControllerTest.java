@@ -0,0 +1,78 @@
+package ru.practicum.ewm.stats;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.ewm.dto.stats.EndpointHit;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.stats.controller.ReactiveStatsController;
+import ru.practicum.ewm.stats.service.ReactiveStatsService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("reactive")
+@WebFluxTest(controllers = ReactiveStatsController.class)
+class ReactiveStatsControllerTest {
+    @MockBean
+    private ReactiveStatsService service;
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    void saveHitShouldThrowValidateExceptionWithInvalidApp() {
+        EndpointHit hit = new EndpointHit("", "/events", "100.111.11.11", "2022-09-06 11:00:23");
+
+        client.post().uri("/hit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(hit)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void saveHitShouldBeOk() {
+        EndpointHit hit = new EndpointHit("ewm", "/events", "100.111.11.11", "2022-09-06 11:00:23");
+        when(service.save(any(EndpointHit.class))).thenReturn(Mono.empty());
+
+        client.post().uri("/hit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(hit)
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    @Test
+    void saveHitsShouldBeOk() {
+        when(service.saveAll(any())).thenReturn(Mono.empty());
+
+        client.post().uri("/hit/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"app\":\"ewm\",\"uri\":\"/events/1\",\"ip\":\"1.1.1.1\","
+                        + "\"timestamp\":\"2022-09-06 11:00:23\"}\n")
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    @Test
+    void getStatsShouldBeOk() {
+        when(service.get(any(LocalDateTime.class), any(LocalDateTime.class), isNull(), anyBoolean()))
+                .thenReturn(Flux.just(new ViewStats("ewm", "/events/1", 2)));
+
+        client.get().uri("/stats?start=2022-09-06 11:00:23&end=2023-09-06 11:00:23")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ViewStats.class).isEqualTo(List.of(new ViewStats("ewm", "/events/1", 2)));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.ewm.stats;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import ru.practicum.ewm.dto.stats.EndpointHit;
+import ru.practicum.ewm.stats.service.ReactiveStatsService;
+
+import javax.validation.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ActiveProfiles("reactive")
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-ingest",
+        "stats.ingest.batch-size=2"
+})
+class ReactiveStatsServiceImplIntegrationTest {
+    @Autowired
+    private ReactiveStatsService statsService;
+    @Autowired
+    private DatabaseClient client;
+
+    @BeforeEach
+    void clear() {
+        client.sql("DELETE FROM stats").then().block();
+    }
+
+    @Test
+    void saveAllShouldStoreEveryChunk() {
+        statsService.saveAll(Flux.range(1, 5).map(this::hit)).block();
+
+        assertEquals(5L, count());
+    }
+
+    @Test
+    void saveAllShouldRollBackWrittenChunksWhenLaterHitIsInvalid() {
+        Flux<EndpointHit> hits = Flux.range(1, 4).map(this::hit)
+                .concatWith(Flux.just(new EndpointHit("ewm", "/events/5", "1.1.1.5", "2999-01-01 00:00:00")));
+
+        assertThrows(ValidationException.class, () -> statsService.saveAll(hits).block());
+
+        assertEquals(0L, count());
+    }
+
+    private EndpointHit hit(int i) {
+        return new EndpointHit("ewm", "/events/" + i, "1.1.1." + i, "2022-09-06 11:00:23");
+    }
+
+    private long count() {
+        return client.sql("SELECT count(*) AS c FROM stats")
+                .map(row -> row.get("c", Long.class))
+                .one()
+                .block();
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.ewm.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.stats.cache.StatsCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsCacheTest {
+    private final StatsCache cache = new StatsCache(true, Duration.ofSeconds(10), Duration.ZERO, 100,
+            Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<ViewStats>> loader = () -> {
+        loads.incrementAndGet();
+        return List.of(new ViewStats("ewm-main-service", "/events/1", loads.get()));
+    };
+
+    @Test
+    void getShouldServeSameNormalizedQueryFromCache() {
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 10, 0, 5);
+        LocalDateTime end = LocalDateTime.of(2023, 1, 2, 10, 0, 5);
+
+        cache.get(start, end, List.of("/events/1", "/events/2"), true, loader);
+        List<ViewStats> statsActual = cache.get(start.plusSeconds(10), end.plusSeconds(20),
+                List.of("/events/2", "/events/1"), true, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, statsActual.get(0).getHits());
+        assertEquals(0.5, cache.hitRatio());
+    }
+
+    @Test
+    void getShouldNotShareEntriesBetweenUniqueAndNotUnique() {
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2023, 1, 2, 10, 0);
+
+        cache.get(start, end, List.of("/events/1"), true, loader);
+        cache.get(start, end, List.of("/events/1"), false, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateShouldReloadOnlyEntriesWithIngestedUri() {
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2023, 1, 2, 10, 0);
+        cache.get(start, end, List.of("/events/1"), true, loader);
+        cache.get(start, end, List.of("/events/2"), true, loader);
+
+        cache.invalidate("/events/1");
+        List<ViewStats> statsActual = cache.get(start, end, List.of("/events/1"), true, loader);
+        cache.get(start, end, List.of("/events/2"), true, loader);
+
+        assertEquals(3, loads.get());
+        assertEquals(3, statsActual.get(0).getHits());
+    }
+
+    @Test
+    void invalidateShouldReloadQueriesWithoutUris() {
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2023, 1, 2, 10, 0);
+        cache.get(start, end, null, false, loader);
+
+        cache.invalidate("/events/42");
+        cache.get(start, end, null, false, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getShouldReloadInvalidatedEntryInsteadOfServingItStale() {
+        StatsCache revalidating = new StatsCache(true, Duration.ofSeconds(10), Duration.ofMinutes(1), 100,
+                Duration.ofMinutes(1));
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2023, 1, 2, 10, 0);
+        try {
+            revalidating.get(start, end, List.of("/events/1"), true, loader);
+
+            revalidating.invalidate("/events/1");
+            List<ViewStats> statsActual = revalidating.get(start, end, List.of("/events/1"), true, loader);
+
+            assertEquals(2, loads.get());
+            assertEquals(2, statsActual.get(0).getHits());
+        } finally {
+            revalidating.shutdown();
+        }
+    }
+
+    @Test
+    void getShouldServeExpiredEntryWhileRevalidating() throws InterruptedException {
+        StatsCache revalidating = new StatsCache(true, Duration.ZERO, Duration.ofMinutes(1), 100,
+                Duration.ofMinutes(1));
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2023, 1, 2, 10, 0);
+        try {
+            revalidating.get(start, end, List.of("/events/1"), true, loader);
+
+            List<ViewStats> statsActual = revalidating.get(start, end, List.of("/events/1"), true, loader);
+
+            assertEquals(1, statsActual.get(0).getHits());
+            for (int i = 0; i < 50 && loads.get() < 2; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(2, loads.get());
+        } finally {
+            revalidating.shutdown();
+        }
+    }
+
+    @Test
+    void cacheShouldBeBoundedByMaxSize() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2023, 1, 2, 10, 0);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.get(start, end, List.of("/events/" + i), true, loader);
+        }
+
+        for (int i = 0; i < 50 && registry.get("stats.cache.size").gauge().value() > 100; i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(registry.get("stats.cache.size").gauge().value() <= 100);
+    }
+
+    @Test
+    void getShouldCallLoaderEveryTimeWhenDisabled() {
+        StatsCache disabled = new StatsCache(false, Duration.ofSeconds(10), Duration.ZERO, 100,
+                Duration.ofMinutes(1));
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2023, 1, 2, 10, 0);
+
+        disabled.get(start, end, null, false, loader);
+        disabled.get(start, end, null, false, loader);
+
+        assertEquals(2, loads.get());
+    }
+}
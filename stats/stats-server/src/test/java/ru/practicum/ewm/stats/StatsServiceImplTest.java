@@ -5,15 +5,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.ewm.dto.stats.EndpointHit;
 import ru.practicum.ewm.dto.stats.ViewStats;
+import ru.practicum.ewm.stats.cache.StatsCache;
+import ru.practicum.ewm.stats.counter.HitCounters;
 import ru.practicum.ewm.stats.mapper.StatsMapperImpl;
 import ru.practicum.ewm.stats.model.Stats;
+import ru.practicum.ewm.stats.repository.JpaHitCounterRepository;
 import ru.practicum.ewm.stats.repository.JpaStatsRepository;
 import ru.practicum.ewm.stats.service.StatsService;
 import ru.practicum.ewm.stats.service.StatsServiceImpl;
 
 import javax.validation.ValidationException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -26,10 +31,17 @@ class StatsServiceImplTest {
     private StatsService service;
     @Mock
     private JpaStatsRepository repository;
+    @Mock
+    private JpaHitCounterRepository counterRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @BeforeEach
     void setUp() {
-        service = new StatsServiceImpl(new StatsMapperImpl(), repository);
+        service = new StatsServiceImpl(new StatsMapperImpl(), repository,
+                new StatsCache(true, Duration.ofSeconds(10), Duration.ZERO, 100, Duration.ofMinutes(1)),
+                new HitCounters(counterRepository, repository, null, transactionManager, false,
+                        Duration.ofMinutes(1), Duration.ofDays(1), Duration.ofSeconds(5)));
     }
 
     @Test